@@ -0,0 +1,141 @@
+package tabletop.gather.backend.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import tabletop.gather.backend.game.Game;
+import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringParticipantCount;
+import tabletop.gather.backend.plan.Plan;
+import tabletop.gather.backend.user.User;
+
+/**
+ * In-memory entity graph for the benchmarks. Plans are owned by random users, every gathering is
+ * attended by a random subset of users and every user owns a random subset of games. The graph is
+ * seeded, so runs are comparable across commits.
+ */
+final class Fixtures {
+
+  final List<User> users = new ArrayList<>();
+  final List<Game> games = new ArrayList<>();
+  final List<Plan> plans = new ArrayList<>();
+
+  private final Random random = new Random(42);
+
+  Fixtures(
+      final int planCount,
+      final int gatheringsPerPlan,
+      final int attendeesPerGathering,
+      final int gamesPerUser) {
+    final int userCount = Math.max(attendeesPerGathering * 4, 100);
+    final int gameCount = Math.max(gamesPerUser * 10, 100);
+    for (int i = 0; i < gameCount; i++) {
+      games.add(game(i));
+    }
+    for (int i = 0; i < userCount; i++) {
+      users.add(user(i, gamesPerUser));
+    }
+    final LocalDate today = LocalDate.now();
+    for (int i = 0; i < planCount; i++) {
+      final Plan plan = plan(i);
+      final Set<Gathering> gatherings = new HashSet<>();
+      for (int j = 0; j < gatheringsPerPlan; j++) {
+        gatherings.add(
+            gathering(plan, today.plusDays(random.nextInt(60) - 7), attendeesPerGathering));
+      }
+      plan.setGatherings(gatherings);
+      plans.add(plan);
+    }
+  }
+
+  /**
+   * Stub-only mocks do not record their invocations and therefore do not grow during a run.
+   *
+   * @param type the type to mock
+   * @return the mock
+   */
+  static <T> T stub(final Class<T> type) {
+    return mock(type, withSettings().stubOnly());
+  }
+
+  /**
+   * @return a version 4 UUID drawn from the seeded generator
+   */
+  UUID nextId() {
+    final long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+    final long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(most, least);
+  }
+
+  static List<GatheringParticipantCount> participantCounts(final Plan plan) {
+    return plan.getGatherings().stream()
+        .map(
+            gathering ->
+                new GatheringParticipantCount(
+                    gathering.getId(), (long) gathering.getUsers().size()))
+        .toList();
+  }
+
+  private Game game(final int i) {
+    final Game game = new Game();
+    game.setId(nextId());
+    game.setName("Game " + i);
+    game.setDescription("A game with a description of realistic length. ".repeat(10));
+    game.setMinPlayer(1 + random.nextInt(4));
+    game.setMaxPlayer(game.getMinPlayer() + random.nextInt(8));
+    game.setImageUrl("https://example.com/games/" + i + ".png");
+    game.setUsers(new HashSet<>());
+    return game;
+  }
+
+  private User user(final int i, final int gamesPerUser) {
+    final User user = new User();
+    user.setId(nextId());
+    user.setUsername("user" + i);
+    user.setFirstName("First" + i);
+    user.setLastName("Last" + i);
+    user.setEmail("user" + i + "@example.com");
+    user.setGatherings(new HashSet<>());
+    user.setGames(new HashSet<>());
+    for (Game game : pick(games, gamesPerUser)) {
+      user.getGames().add(game);
+      game.getUsers().add(user);
+    }
+    return user;
+  }
+
+  private Plan plan(final int i) {
+    final Plan plan = new Plan();
+    plan.setId(nextId());
+    plan.setName("Plan " + i);
+    plan.setIsPrivate(random.nextInt(5) == 0);
+    plan.setDescription("A plan with a description of realistic length. ".repeat(10));
+    plan.setPlayerLimit(random.nextInt(3) == 0 ? 0 : 2 + random.nextInt(10));
+    plan.setUser(users.get(random.nextInt(users.size())));
+    plan.setGame(random.nextBoolean() ? games.get(random.nextInt(games.size())) : null);
+    return plan;
+  }
+
+  private Gathering gathering(final Plan plan, final LocalDate date, final int attendees) {
+    final Gathering gathering = new Gathering();
+    gathering.setId(nextId());
+    gathering.setPlan(plan);
+    gathering.setDate(date);
+    gathering.setStartTime(LocalTime.of(12 + random.nextInt(8), 0));
+    gathering.setUsers(new HashSet<>());
+    for (User user : pick(users, attendees)) {
+      gathering.getUsers().add(user);
+      user.getGatherings().add(gathering);
+    }
+    return gathering;
+  }
+
+  private <T> List<T> pick(final List<T> from, final int count) {
+    final List<T> shuffled = new ArrayList<>(from);
+    Collections.shuffle(shuffled, random);
+    return shuffled.subList(0, Math.min(count, shuffled.size()));
+  }
+}
@@ -0,0 +1,95 @@
+package tabletop.gather.backend.benchmark;
+
+import static org.mockito.Mockito.when;
+import static tabletop.gather.backend.benchmark.Fixtures.stub;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import tabletop.gather.backend.game.Game;
+import tabletop.gather.backend.game.GameCatalog;
+import tabletop.gather.backend.game.GameOwnership;
+import tabletop.gather.backend.game.GamePlanDto;
+import tabletop.gather.backend.game.GameRepository;
+import tabletop.gather.backend.game.GameService;
+import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringAttendance;
+import tabletop.gather.backend.gathering.GatheringRepository;
+import tabletop.gather.backend.plan.Plan;
+import tabletop.gather.backend.plan.PlanRepository;
+import tabletop.gather.backend.user.User;
+import tabletop.gather.backend.user.UserRepository;
+
+/** Matching of the attendees' game collections against each gathering of a plan. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameServiceBenchmark {
+
+  @Param({"10", "100"})
+  private int attendeesPerGathering;
+
+  @Param({"10", "50"})
+  private int gamesPerUser;
+
+  private GameService gameService;
+  private UUID planId;
+
+  @Setup
+  public void setUp() {
+    final Fixtures fixtures = new Fixtures(1, 5, attendeesPerGathering, gamesPerUser);
+    final Plan plan = fixtures.plans.get(0);
+    planId = plan.getId();
+
+    final GameRepository gameRepository = stub(GameRepository.class);
+    final GatheringRepository gatheringRepository = stub(GatheringRepository.class);
+    final PlanRepository planRepository = stub(PlanRepository.class);
+    gameService =
+        new GameService(
+            gameRepository,
+            stub(UserRepository.class),
+            gatheringRepository,
+            planRepository,
+            stub(GameCatalog.class));
+
+    final List<Gathering> gatherings =
+        plan.getGatherings().stream().sorted(Comparator.comparing(Gathering::getDate)).toList();
+    final List<GatheringAttendance> attendance = new ArrayList<>();
+    final Set<User> attendees = new LinkedHashSet<>();
+    for (Gathering gathering : gatherings) {
+      for (User user : gathering.getUsers()) {
+        attendance.add(
+            new GatheringAttendance(
+                gathering.getId(), gathering.getDate(), gathering.getStartTime(), user.getId()));
+        attendees.add(user);
+      }
+    }
+    final List<GameOwnership> ownerships = new ArrayList<>();
+    for (User user : attendees) {
+      for (Game game : user.getGames()) {
+        ownerships.add(
+            new GameOwnership(
+                user.getId(),
+                user.getFirstName() + " " + user.getLastName(),
+                game.getId(),
+                game.getName(),
+                game.getDescription(),
+                game.getMinPlayer(),
+                game.getMaxPlayer(),
+                game.getImageUrl()));
+      }
+    }
+    ownerships.sort(Comparator.comparing(GameOwnership::name).thenComparing(GameOwnership::id));
+    when(planRepository.existsById(planId)).thenReturn(true);
+    when(gatheringRepository.findAttendanceByPlanId(planId)).thenReturn(attendance);
+    when(gameRepository.findOwnershipsByPlanId(planId)).thenReturn(ownerships);
+  }
+
+  @Benchmark
+  public List<GamePlanDto> findByAttendingOnPlan() {
+    return gameService.findByAttendingOnPlan(planId);
+  }
+}
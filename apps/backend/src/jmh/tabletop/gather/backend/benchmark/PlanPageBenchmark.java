@@ -0,0 +1,103 @@
+package tabletop.gather.backend.benchmark;
+
+import static org.mockito.Mockito.when;
+import static tabletop.gather.backend.benchmark.Fixtures.stub;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tabletop.gather.backend.auth.RefreshTokenService;
+import tabletop.gather.backend.comment.CommentItemDto;
+import tabletop.gather.backend.comment.CommentItemProjection;
+import tabletop.gather.backend.comment.CommentRepository;
+import tabletop.gather.backend.comment.CommentService;
+import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringRepository;
+import tabletop.gather.backend.jwt.TokenEpochCache;
+import tabletop.gather.backend.plan.Plan;
+import tabletop.gather.backend.plan.PlanRepository;
+import tabletop.gather.backend.plan.PlanSummaryService;
+import tabletop.gather.backend.user.*;
+
+/** Mapping of the comment and attendee lists shown next to a plan. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanPageBenchmark {
+
+  @Param({"10", "100"})
+  private int attendeesPerGathering;
+
+  @Param({"10", "200"})
+  private int commentCount;
+
+  private CommentService commentService;
+  private UserService userService;
+  private UUID planId;
+
+  @Setup
+  public void setUp() {
+    final Fixtures fixtures = new Fixtures(1, 5, attendeesPerGathering, 0);
+    final Plan plan = fixtures.plans.get(0);
+    planId = plan.getId();
+
+    final CommentRepository commentRepository = stub(CommentRepository.class);
+    final PlanRepository planRepository = stub(PlanRepository.class);
+    final UserRepository userRepository = stub(UserRepository.class);
+    commentService = new CommentService(commentRepository, userRepository, planRepository);
+    userService =
+        new UserService(
+            userRepository,
+            stub(PasswordEncoder.class),
+            stub(GatheringRepository.class),
+            stub(PlanSummaryService.class),
+            stub(TokenEpochCache.class),
+            stub(UserCache.class),
+            stub(RefreshTokenService.class),
+            stub(RegisteredEmails.class));
+
+    final List<CommentItemProjection> comments = new ArrayList<>();
+    for (int i = 0; i < commentCount; i++) {
+      final User author = fixtures.users.get(i % fixtures.users.size());
+      comments.add(
+          new CommentItemProjection(
+              fixtures.nextId(),
+              "A comment of realistic length. ".repeat(5),
+              author.getFirstName(),
+              author.getLastName(),
+              OffsetDateTime.now().minusMinutes(commentCount - i)));
+    }
+    final List<UserPlanProjection> attendances = new ArrayList<>();
+    for (Gathering gathering : plan.getGatherings()) {
+      for (User user : gathering.getUsers()) {
+        attendances.add(
+            new UserPlanProjection(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                gathering.getDate(),
+                gathering.getStartTime()));
+      }
+    }
+    attendances.sort(Comparator.comparing(UserPlanProjection::userId));
+    when(planRepository.existsById(planId)).thenReturn(true);
+    when(commentRepository.findItemsByPlanId(planId)).thenReturn(comments);
+    when(userRepository.findAttendingByPlanId(planId)).thenReturn(attendances);
+  }
+
+  @Benchmark
+  public List<CommentItemDto> findCommentsByPlanId() {
+    return commentService.findByPlanId(planId);
+  }
+
+  @Benchmark
+  public List<UserPlanDto> findAttendeesByPlanId() {
+    return userService.findByPlanId(planId);
+  }
+}
@@ -0,0 +1,127 @@
+package tabletop.gather.backend.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static tabletop.gather.backend.benchmark.Fixtures.participantCounts;
+import static tabletop.gather.backend.benchmark.Fixtures.stub;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import tabletop.gather.backend.game.GameRepository;
+import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringParticipantCount;
+import tabletop.gather.backend.gathering.GatheringRepository;
+import tabletop.gather.backend.plan.*;
+import tabletop.gather.backend.user.User;
+import tabletop.gather.backend.user.UserRepository;
+
+/**
+ * Mapping and filtering done by {@link PlanService} and {@link PlanSummaryService} on top of their
+ * repositories. Repositories are stubbed with the in-memory graph, so only service code is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanServiceBenchmark {
+
+  @Param({"100", "1000"})
+  private int planCount;
+
+  @Param({"10", "100"})
+  private int attendeesPerGathering;
+
+  private PlanService planService;
+  private PlanSummaryService planSummaryService;
+  private Fixtures fixtures;
+  private Map<UUID, Map<UUID, Long>> participantCounts;
+  private UUID viewerId;
+  private UUID detailPlanId;
+
+  @Setup
+  public void setUp() {
+    fixtures = new Fixtures(planCount, 5, attendeesPerGathering, 10);
+    final PlanRepository planRepository = stub(PlanRepository.class);
+    final GatheringRepository gatheringRepository = stub(GatheringRepository.class);
+    final PlanSummaryRepository planSummaryRepository = stub(PlanSummaryRepository.class);
+    planSummaryService =
+        new PlanSummaryService(
+            planSummaryRepository, planRepository, gatheringRepository, stub(CacheManager.class));
+    planService =
+        new PlanService(
+            planRepository,
+            stub(UserRepository.class),
+            stub(GameRepository.class),
+            gatheringRepository,
+            planSummaryRepository,
+            planSummaryService);
+
+    participantCounts = new HashMap<>();
+    for (Plan plan : fixtures.plans) {
+      participantCounts.put(
+          plan.getId(),
+          participantCounts(plan).stream()
+              .collect(
+                  Collectors.toMap(
+                      GatheringParticipantCount::gatheringId,
+                      GatheringParticipantCount::participantCount)));
+    }
+    final List<PlanSummary> summaries = mapAllToSummaries();
+
+    final User viewer = fixtures.users.get(0);
+    viewerId = viewer.getId();
+    final Set<UUID> attendedGatheringIds =
+        viewer.getGatherings().stream().map(Gathering::getId).collect(Collectors.toSet());
+    final Set<UUID> attendedPlanIds =
+        viewer.getGatherings().stream()
+            .map(gathering -> gathering.getPlan().getId())
+            .collect(Collectors.toSet());
+    when(planSummaryRepository.findUpcomingPublicExceptUser(any(), any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(summaries));
+    when(planSummaryRepository.findAllAttendedBy(viewerId))
+        .thenReturn(
+            summaries.stream()
+                .filter(summary -> attendedPlanIds.contains(summary.getPlanId()))
+                .toList());
+    when(gatheringRepository.findIdsAttendedBy(viewerId)).thenReturn(attendedGatheringIds);
+
+    final Plan detailPlan = fixtures.plans.get(0);
+    detailPlanId = detailPlan.getId();
+    when(planRepository.findDetailById(detailPlanId)).thenReturn(Optional.of(detailPlan));
+    when(gatheringRepository.countParticipantsByPlanId(detailPlanId))
+        .thenReturn(participantCounts(detailPlan));
+  }
+
+  @Benchmark
+  public List<OverviewPlanDto> findAllExceptUser() {
+    return planService.findAllExceptUser(viewerId);
+  }
+
+  @Benchmark
+  public List<OverviewPlanDto> findAllAttending() {
+    return planService.findAllAttending(viewerId);
+  }
+
+  @Benchmark
+  public DetailPlanDto getDetail() {
+    return planService.getDetail(detailPlanId);
+  }
+
+  @Benchmark
+  public List<PlanSummary> mapAllToSummaries() {
+    return fixtures.plans.stream()
+        .map(
+            plan ->
+                planSummaryService.mapToSummary(
+                    plan, participantCounts.get(plan.getId()), new PlanSummary()))
+        .toList();
+  }
+}
@@ -1,12 +1,17 @@
 package tabletop.gather.backend.auth;
 
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import tabletop.gather.backend.jwt.JwtDto;
 import tabletop.gather.backend.jwt.JwtService;
@@ -17,14 +22,19 @@ import tabletop.gather.backend.user.UserDto;
 @RequestMapping(value = "/auth", produces = MediaType.APPLICATION_JSON_VALUE)
 @RestController
 public class AuthenticationResource {
-  private final JwtService jwtService;
-
   private final AuthenticationService authenticationService;
 
+  private final RefreshTokenService refreshTokenService;
+
+  private final JwtService jwtService;
+
   public AuthenticationResource(
-      JwtService jwtService, AuthenticationService authenticationService) {
-    this.jwtService = jwtService;
+      AuthenticationService authenticationService,
+      RefreshTokenService refreshTokenService,
+      JwtService jwtService) {
     this.authenticationService = authenticationService;
+    this.refreshTokenService = refreshTokenService;
+    this.jwtService = jwtService;
   }
 
   @PostMapping("/signup")
@@ -35,16 +45,55 @@ public class AuthenticationResource {
     return ResponseEntity.ok(registeredUser);
   }
 
+  /**
+   * Checks whether an email is already registered, e.g. while filling in the registration form.
+   *
+   * @param email the email to check
+   * @return true if the email is taken
+   */
+  @GetMapping("/email-taken")
+  public ResponseEntity<Boolean> isEmailTaken(@RequestParam(name = "email") final String email) {
+    return ResponseEntity.ok(authenticationService.isEmailTaken(email));
+  }
+
   @PostMapping("/login")
   public ResponseEntity<JwtDto> authenticate(@RequestBody @Valid final LoginUserDto loginUserDto) {
     User authenticatedUser = authenticationService.authenticate(loginUserDto);
 
-    String jwtToken = jwtService.generateToken(authenticatedUser);
-
-    JwtDto loginResponse = new JwtDto();
-    loginResponse.setToken(jwtToken);
-    loginResponse.setExpiresIn(jwtService.getExpirationTime());
+    JwtDto loginResponse = refreshTokenService.createSession(authenticatedUser);
 
     return ResponseEntity.ok(loginResponse);
   }
+
+  /**
+   * Renews a session without the password. The refresh token is single use, the response carries
+   * its replacement.
+   *
+   * @param refreshTokenDto the refresh token from the login or the last renewal
+   * @return JWT token with expiration time and a new refresh token
+   */
+  @PostMapping("/refresh")
+  @ApiResponse(responseCode = "200")
+  public ResponseEntity<JwtDto> refresh(@RequestBody @Valid final RefreshTokenDto refreshTokenDto) {
+    return ResponseEntity.ok(refreshTokenService.refresh(refreshTokenDto.getRefreshToken()));
+  }
+
+  /**
+   * Ends a session by revoking its refresh token and, if sent along, its JWT token.
+   *
+   * @param token the JWT token of the session, optional
+   * @param refreshTokenDto the refresh token of the session
+   * @return 204
+   */
+  @PostMapping("/logout")
+  @ApiResponse(responseCode = "204")
+  public ResponseEntity<Void> logout(
+      @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) final String token,
+      @RequestBody @Valid final RefreshTokenDto refreshTokenDto) {
+    refreshTokenService.revoke(refreshTokenDto.getRefreshToken());
+    if (token != null) {
+      jwtService.revoke(token);
+    }
+    return ResponseEntity.noContent().build();
+  }
 }
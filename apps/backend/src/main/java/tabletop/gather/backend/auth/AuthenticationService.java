@@ -1,10 +1,16 @@
 package tabletop.gather.backend.auth;
 
+import java.util.Set;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import tabletop.gather.backend.user.RegisteredEmails;
 import tabletop.gather.backend.user.User;
 import tabletop.gather.backend.user.UserDto;
 import tabletop.gather.backend.user.UserRepository;
@@ -13,6 +19,9 @@ import tabletop.gather.backend.util.NotFoundException;
 
 @Service
 public class AuthenticationService {
+  private static final Set<String> EMAIL_CONSTRAINTS =
+      Set.of("uc_users_email", "uc_users_email_lower");
+
   private final UserRepository userRepository;
 
   private final UserService userService;
@@ -21,22 +30,51 @@ public class AuthenticationService {
 
   private final PasswordEncoder passwordEncoder;
 
+  private final PasswordAttemptThrottle passwordAttemptThrottle;
+
+  private final RegisteredEmails registeredEmails;
+
   public AuthenticationService(
       UserRepository userRepository,
       UserService userService,
       AuthenticationManager authenticationManager,
-      PasswordEncoder passwordEncoder) {
+      PasswordEncoder passwordEncoder,
+      PasswordAttemptThrottle passwordAttemptThrottle,
+      RegisteredEmails registeredEmails) {
     this.userRepository = userRepository;
     this.userService = userService;
     this.authenticationManager = authenticationManager;
     this.passwordEncoder = passwordEncoder;
+    this.passwordAttemptThrottle = passwordAttemptThrottle;
+    this.registeredEmails = registeredEmails;
   }
 
+  /**
+   * Check whether an email is registered, ignoring case. Lookups are throttled per client address,
+   * only emails the {@link RegisteredEmails} filter might know are looked up in the database.
+   *
+   * @param email the email to check
+   * @return true if the email is taken
+   */
   public boolean isEmailTaken(String email) {
-    return userRepository.findByEmail(email).isPresent();
+    passwordAttemptThrottle.acquireEmailLookup();
+    return isRegistered(email);
   }
 
+  /**
+   * Register a new user. A taken email is usually detected before the password is hashed, the
+   * unique index on lower(email) catches the rest without a separate lookup.
+   *
+   * @param input the registration
+   * @return the registered user
+   * @throws ResponseStatusException 409 if the email is taken
+   */
   public UserDto signup(RegisterUserDto input) {
+    passwordAttemptThrottle.acquire(input.getEmail());
+    if (isRegistered(input.getEmail())) {
+      throw emailTaken();
+    }
+
     User user = new User();
     user.setUsername(input.getUsername());
     user.setFirstName(input.getFirstName());
@@ -44,11 +82,21 @@ public class AuthenticationService {
     user.setEmail(input.getEmail());
     user.setPasswordHash(passwordEncoder.encode(input.getPassword()));
 
-    userRepository.save(user);
+    try {
+      userRepository.save(user);
+    } catch (DataIntegrityViolationException exception) {
+      if (exception.getCause() instanceof ConstraintViolationException violation
+          && EMAIL_CONSTRAINTS.contains(violation.getConstraintName())) {
+        throw emailTaken();
+      }
+      throw exception;
+    }
+    registeredEmails.add(user.getEmail());
     return this.userService.mapToDto(user, new UserDto());
   }
 
   public User authenticate(LoginUserDto input) {
+    passwordAttemptThrottle.acquire(input.getEmail());
     authenticationManager.authenticate(
         new UsernamePasswordAuthenticationToken(input.getEmail(), input.getPassword()));
 
@@ -56,6 +104,7 @@ public class AuthenticationService {
   }
 
   public void verifyEmailPassword(String email, String password) {
+    passwordAttemptThrottle.acquire(email);
     User user =
         userRepository
             .findByEmail(email)
@@ -64,4 +113,13 @@ public class AuthenticationService {
       throw new BadCredentialsException("Invalid credentials");
     }
   }
+
+  private boolean isRegistered(final String email) {
+    return registeredEmails.mightBeRegistered(email)
+        && userRepository.existsByEmailIgnoreCase(email);
+  }
+
+  private ResponseStatusException emailTaken() {
+    return new ResponseStatusException(HttpStatus.CONFLICT, "email is already registered");
+  }
 }
@@ -0,0 +1,112 @@
+package tabletop.gather.backend.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tabletop.gather.backend.util.TooManyRequestsException;
+
+/**
+ * Runs an expensive {@link PasswordEncoder} on a pool of its own. At most {@code threads} hashes
+ * run at once and at most {@code queueCapacity} wait, further requests are rejected right away
+ * instead of tying up request threads. Queue depth is published as executor.* metrics, waiting and
+ * hashing times as password.hashing.wait and password.hashing.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+  private static final String NAME = "passwordHashing";
+
+  private final PasswordEncoder delegate;
+  private final ExecutorService executor;
+  private final Timer waitTimer;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public BoundedPasswordEncoder(
+      final PasswordEncoder delegate,
+      final int threads,
+      final int queueCapacity,
+      final MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        ExecutorServiceMetrics.monitor(
+            meterRegistry,
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                  Thread thread = new Thread(runnable, NAME + "-" + threadCount.incrementAndGet());
+                  thread.setDaemon(true);
+                  return thread;
+                }),
+            NAME);
+    this.waitTimer = meterRegistry.timer("password.hashing.wait");
+    this.encodeTimer = meterRegistry.timer("password.hashing", "operation", "encode");
+    this.matchesTimer = meterRegistry.timer("password.hashing", "operation", "matches");
+    this.rejected = meterRegistry.counter("password.hashing.rejected");
+  }
+
+  @Override
+  public String encode(final CharSequence rawPassword) {
+    return run(encodeTimer, () -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+    return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(final String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  private <T> T run(final Timer timer, final Supplier<T> task) {
+    final long submittedAt = System.nanoTime();
+    final Future<T> future;
+    try {
+      future =
+          executor.submit(
+              () -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.record(task);
+              });
+    } catch (RejectedExecutionException exception) {
+      rejected.increment();
+      throw new TooManyRequestsException("password hashing is saturated", 1);
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException exception) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(exception);
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(exception.getCause());
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package tabletop.gather.backend.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tabletop.gather.backend.util.TooManyRequestsException;
+
+/**
+ * Token buckets limiting how often a password can be hashed or verified per client address and per
+ * email from one address, and how often a client address can ask whether an email is registered.
+ * Each bucket holds one minute worth of attempts and refills continuously.
+ *
+ * <p>The email buckets are kept per address, so attempts from one client cannot lock the owner of
+ * an email out. Client addresses are taken from the request, behind a proxy it has to forward them
+ * (server.forward-headers-strategy), otherwise all clients share the bucket of the proxy.
+ */
+@Component
+public class PasswordAttemptThrottle {
+  private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+  private final Cache<String, TokenBucket> buckets =
+      Caffeine.newBuilder().maximumSize(100_000).expireAfterAccess(Duration.ofHours(1)).build();
+
+  private final int emailPerMinute;
+  private final int addressPerMinute;
+  private final int lookupsPerMinute;
+  private final Counter throttledByEmail;
+  private final Counter throttledByAddress;
+  private final Counter throttledLookups;
+
+  public PasswordAttemptThrottle(
+      @Value("${security.password-throttle.email-per-minute:10}") final int emailPerMinute,
+      @Value("${security.password-throttle.address-per-minute:60}") final int addressPerMinute,
+      @Value("${security.password-throttle.email-lookups-per-minute:30}")
+          final int lookupsPerMinute,
+      final MeterRegistry meterRegistry) {
+    this.emailPerMinute = emailPerMinute;
+    this.addressPerMinute = addressPerMinute;
+    this.lookupsPerMinute = lookupsPerMinute;
+    this.throttledByEmail = meterRegistry.counter("password.throttle.rejected", "key", "email");
+    this.throttledByAddress = meterRegistry.counter("password.throttle.rejected", "key", "address");
+    this.throttledLookups = meterRegistry.counter("password.throttle.rejected", "key", "lookup");
+  }
+
+  /**
+   * Takes one attempt from the bucket of the address of the current request and from the bucket of
+   * the email from that address.
+   *
+   * @param email the email the password belongs to
+   * @throws TooManyRequestsException if either bucket is empty
+   */
+  public void acquire(final String email) {
+    final String address = currentAddress();
+    if (address != null) {
+      take(
+          "address:" + address, addressPerMinute, throttledByAddress, "too many password attempts");
+    }
+    if (email != null) {
+      take(
+          "email:" + email.toLowerCase(Locale.ROOT) + (address == null ? "" : " from:" + address),
+          emailPerMinute,
+          throttledByEmail,
+          "too many password attempts");
+    }
+  }
+
+  /**
+   * Takes one email lookup from the bucket of the address of the current request. Answers to
+   * lookups reveal registered accounts, so they are limited like password attempts.
+   *
+   * @throws TooManyRequestsException if the bucket is empty
+   */
+  public void acquireEmailLookup() {
+    final String address = currentAddress();
+    if (address != null) {
+      take("lookup:" + address, lookupsPerMinute, throttledLookups, "too many email lookups");
+    }
+  }
+
+  private void take(
+      final String key, final int perMinute, final Counter throttled, final String message) {
+    final long waitNanos =
+        buckets.get(key, k -> new TokenBucket(perMinute)).tryConsume(System.nanoTime());
+    if (waitNanos > 0) {
+      throttled.increment();
+      throw new TooManyRequestsException(message, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+    }
+  }
+
+  private static String currentAddress() {
+    return RequestContextHolder.getRequestAttributes()
+            instanceof ServletRequestAttributes attributes
+        ? attributes.getRequest().getRemoteAddr()
+        : null;
+  }
+
+  private static final class TokenBucket {
+    private final int capacity;
+    private final long nanosPerToken;
+    private double tokens;
+    private long refilledAt;
+
+    private TokenBucket(final int perMinute) {
+      this.capacity = perMinute;
+      this.nanosPerToken = NANOS_PER_MINUTE / perMinute;
+      this.tokens = perMinute;
+      this.refilledAt = System.nanoTime();
+    }
+
+    /** Returns 0 if a token was taken, otherwise the time until the next token is available. */
+    private synchronized long tryConsume(final long now) {
+      tokens = Math.min(capacity, tokens + (double) (now - refilledAt) / nanosPerToken);
+      refilledAt = now;
+      if (tokens >= 1) {
+        tokens--;
+        return 0;
+      }
+      return (long) ((1 - tokens) * nanosPerToken);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package tabletop.gather.backend.auth;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import tabletop.gather.backend.user.User;
+
+@Entity
+@Table(name = "RefreshTokens")
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+public class RefreshToken {
+
+  @Id
+  @Column(nullable = false, updatable = false)
+  @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
+  @GeneratedValue(generator = "uuid")
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false, updatable = false)
+  private User user;
+
+  /** SHA-256 of the token handed to the client, hex encoded. The token itself is never stored. */
+  @Column(nullable = false, updatable = false, unique = true, length = 64)
+  private String tokenHash;
+
+  @Column(nullable = false, updatable = false)
+  private OffsetDateTime expiresAt;
+
+  @CreatedDate
+  @Column(nullable = false, updatable = false)
+  private OffsetDateTime dateCreated;
+
+  @LastModifiedDate
+  @Column(nullable = false)
+  private OffsetDateTime lastUpdated;
+}
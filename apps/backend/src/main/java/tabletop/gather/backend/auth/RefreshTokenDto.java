@@ -0,0 +1,15 @@
+package tabletop.gather.backend.auth;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshTokenDto {
+
+  @NotEmpty(message = "Refresh token is required")
+  @Size(max = 100, message = "Refresh token is too long")
+  private String refreshToken;
+}
@@ -0,0 +1,42 @@
+package tabletop.gather.backend.auth;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+  /**
+   * Find a refresh token by its hash, together with its user.
+   *
+   * @param tokenHash the hash of the token
+   * @return the refresh token with its user
+   */
+  @Query("select t from RefreshToken t join fetch t.user where t.tokenHash = :tokenHash")
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+  /**
+   * Delete a refresh token, unless another request already did.
+   *
+   * @param id the id of the token
+   * @return the number of deleted tokens, 0 if it was already used
+   */
+  @Modifying
+  @Query("delete from RefreshToken t where t.id = :id")
+  int deleteTokenById(UUID id);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.tokenHash = :tokenHash")
+  void deleteByTokenHash(String tokenHash);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.user.id = :userId")
+  void deleteByUserId(UUID userId);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.user.id = :userId and t.expiresAt < :now")
+  void deleteExpiredByUserId(UUID userId, OffsetDateTime now);
+}
@@ -0,0 +1,122 @@
+package tabletop.gather.backend.auth;
+
+import jakarta.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import tabletop.gather.backend.jwt.JwtDto;
+import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.user.User;
+
+/**
+ * Issues short-lived access tokens together with long-lived refresh tokens. A refresh token can be
+ * used exactly once: renewing it revokes it and hands out a new one, so renewing a session costs an
+ * indexed lookup instead of a password verification.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+  private static final int TOKEN_BYTES = 32;
+
+  private final SecureRandom secureRandom = new SecureRandom();
+
+  private final RefreshTokenRepository refreshTokenRepository;
+  private final JwtService jwtService;
+  private final long refreshExpiration;
+
+  public RefreshTokenService(
+      final RefreshTokenRepository refreshTokenRepository,
+      final JwtService jwtService,
+      @Value("${security.jwt.refresh-expiration-time:2592000000}") final long refreshExpiration) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.jwtService = jwtService;
+    this.refreshExpiration = refreshExpiration;
+  }
+
+  /**
+   * Starts a new session for the user.
+   *
+   * @param user the authenticated user
+   * @return access token with expiration time and a new refresh token
+   */
+  public JwtDto createSession(final User user) {
+    final OffsetDateTime now = OffsetDateTime.now();
+    refreshTokenRepository.deleteExpiredByUserId(user.getId(), now);
+
+    final byte[] bytes = new byte[TOKEN_BYTES];
+    secureRandom.nextBytes(bytes);
+    final String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    final RefreshToken refreshToken = new RefreshToken();
+    refreshToken.setUser(user);
+    refreshToken.setTokenHash(hash(token));
+    refreshToken.setExpiresAt(now.plusNanos(refreshExpiration * 1_000_000));
+    refreshTokenRepository.save(refreshToken);
+
+    final JwtDto jwtDto = jwtService.getNewJwtToken(user);
+    jwtDto.setRefreshToken(token);
+    return jwtDto;
+  }
+
+  /**
+   * Renews a session. The given refresh token is revoked and replaced.
+   *
+   * @param token the refresh token handed out before
+   * @return access token with expiration time and a new refresh token
+   */
+  public JwtDto refresh(final String token) {
+    final RefreshToken refreshToken =
+        refreshTokenRepository
+            .findByTokenHash(hash(token))
+            .orElseThrow(RefreshTokenService::invalidRefreshToken);
+
+    // Deleting first makes sure concurrent requests can't both renew the same token
+    if (refreshTokenRepository.deleteTokenById(refreshToken.getId()) == 0
+        || refreshToken.getExpiresAt().isBefore(OffsetDateTime.now())) {
+      throw invalidRefreshToken();
+    }
+
+    return createSession(refreshToken.getUser());
+  }
+
+  /**
+   * Revokes a refresh token, e.g. on logout.
+   *
+   * @param token the refresh token handed out before
+   */
+  public void revoke(final String token) {
+    refreshTokenRepository.deleteByTokenHash(hash(token));
+  }
+
+  /**
+   * Revokes all refresh tokens of a user, e.g. after a password change.
+   *
+   * @param userId the id of the user
+   */
+  public void revokeAll(final UUID userId) {
+    refreshTokenRepository.deleteByUserId(userId);
+  }
+
+  private static ResponseStatusException invalidRefreshToken() {
+    return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "invalid refresh token");
+  }
+
+  private static String hash(final String token) {
+    try {
+      return HexFormat.of()
+          .formatHex(
+              MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+}
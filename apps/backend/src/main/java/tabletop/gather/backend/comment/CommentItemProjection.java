@@ -0,0 +1,10 @@
+package tabletop.gather.backend.comment;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a comment and its author's name, as exposed by {@link CommentItemDto}.
+ */
+public record CommentItemProjection(
+    UUID id, String comment, String firstName, String lastName, OffsetDateTime dateCreated) {}
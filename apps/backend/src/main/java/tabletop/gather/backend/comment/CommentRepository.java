@@ -1,10 +1,32 @@
 package tabletop.gather.backend.comment;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import tabletop.gather.backend.util.EntityVersion;
 
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
-  List<Comment> findByPlanId(UUID id, Sort sort);
+  @Query(
+      """
+      select new tabletop.gather.backend.comment.CommentItemProjection(
+        c.id, c.comment, u.firstName, u.lastName, c.dateCreated)
+      from Comment c join c.user u
+      where c.plan.id = :planId
+      order by c.dateCreated
+      """)
+  List<CommentItemProjection> findItemsByPlanId(UUID planId);
+
+  @Query(
+      """
+      select new tabletop.gather.backend.util.EntityVersion(
+        greatest(p.lastUpdated, max(c.lastUpdated), max(u.lastUpdated)), count(c))
+      from Plan p
+      left join p.comments c
+      left join c.user u
+      where p.id = :planId
+      group by p.id
+      """)
+  Optional<EntityVersion> findVersionByPlanId(UUID planId);
 }
@@ -4,22 +4,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.config.AuthenticatedUser;
+import tabletop.gather.backend.user.UserDto;
+import tabletop.gather.backend.util.ConditionalResponse;
 
 @RestController
 @RequestMapping(value = "/api/comments", produces = MediaType.APPLICATION_JSON_VALUE)
 public class CommentResource {
 
   private final CommentService commentService;
-  private final JwtService jwtService;
 
-  public CommentResource(final CommentService commentService, final JwtService jwtService) {
+  public CommentResource(final CommentService commentService) {
     this.commentService = commentService;
-    this.jwtService = jwtService;
   }
 
   /**
@@ -31,8 +32,10 @@ public class CommentResource {
   @GetMapping("/plan/{id}")
   @ApiResponse(responseCode = "200")
   public ResponseEntity<List<CommentItemDto>> getCommentsByPlanId(
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
       @PathVariable(name = "id") final UUID id) {
-    return ResponseEntity.ok(commentService.findByPlanId(id));
+    return ConditionalResponse.of(
+        ifNoneMatch, commentService.getVersionByPlanId(id), () -> commentService.findByPlanId(id));
   }
 
   /**
@@ -44,9 +47,9 @@ public class CommentResource {
   @PostMapping
   @ApiResponse(responseCode = "201")
   public ResponseEntity<UUID> createComment(
-      @RequestHeader("Authorization") final String token,
+      @AuthenticatedUser final UserDto user,
       @RequestBody @Valid final CreateCommentDto commentDto) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+    UUID userId = user.getId();
     final UUID createdId = commentService.create(commentDto, userId);
     return new ResponseEntity<>(createdId, HttpStatus.CREATED);
   }
@@ -60,10 +63,10 @@ public class CommentResource {
    */
   @PutMapping("/{id}")
   public ResponseEntity<UUID> updateComment(
-      @RequestHeader("Authorization") final String token,
+      @AuthenticatedUser final UserDto user,
       @PathVariable(name = "id") final UUID id,
       @RequestBody @Valid final UpdateCommentDto commentDto) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+    UUID userId = user.getId();
     commentService.update(id, commentDto, userId);
     return ResponseEntity.ok(id);
   }
@@ -77,9 +80,8 @@ public class CommentResource {
   @DeleteMapping("/{id}")
   @ApiResponse(responseCode = "204")
   public ResponseEntity<Void> deleteComment(
-      @RequestHeader("Authorization") final String token,
-      @PathVariable(name = "id") final UUID id) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+      @AuthenticatedUser final UserDto user, @PathVariable(name = "id") final UUID id) {
+    UUID userId = user.getId();
     commentService.delete(id, userId);
     return ResponseEntity.noContent().build();
   }
@@ -1,6 +1,7 @@
 package tabletop.gather.backend.comment;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -8,6 +9,7 @@ import tabletop.gather.backend.plan.Plan;
 import tabletop.gather.backend.plan.PlanRepository;
 import tabletop.gather.backend.user.User;
 import tabletop.gather.backend.user.UserRepository;
+import tabletop.gather.backend.util.EntityVersion;
 import tabletop.gather.backend.util.NotFoundException;
 
 @Service
@@ -43,11 +45,23 @@ public class CommentService {
    * @return A list of comments.
    */
   public List<CommentItemDto> findByPlanId(UUID id) {
-    planRepository.findById(id).orElseThrow(() -> new NotFoundException("plan not found"));
-    final List<Comment> comments = commentRepository.findByPlanId(id, Sort.by("dateCreated"));
+    if (!planRepository.existsById(id)) {
+      throw new NotFoundException("plan not found");
+    }
+    final List<CommentItemProjection> comments = commentRepository.findItemsByPlanId(id);
     return comments.stream().map(comment -> mapToDto(comment, new CommentItemDto())).toList();
   }
 
+  /**
+   * Get the version of the comments of a plan, including their authors' names.
+   *
+   * @param id The plan id.
+   * @return The version, empty if the plan does not exist.
+   */
+  public Optional<EntityVersion> getVersionByPlanId(UUID id) {
+    return commentRepository.findVersionByPlanId(id);
+  }
+
   /**
    * Find all comments by user id.
    *
@@ -115,12 +129,12 @@ public class CommentService {
     return commentDto;
   }
 
-  private CommentItemDto mapToDto(final Comment comment, final CommentItemDto commentDto) {
-    commentDto.setId(comment.getId());
-    commentDto.setComment(comment.getComment());
-    commentDto.setUser(
-        String.format("%s %s", comment.getUser().getFirstName(), comment.getUser().getLastName()));
-    commentDto.setDateCreated(comment.getDateCreated());
+  private CommentItemDto mapToDto(
+      final CommentItemProjection comment, final CommentItemDto commentDto) {
+    commentDto.setId(comment.id());
+    commentDto.setComment(comment.comment());
+    commentDto.setUser(String.format("%s %s", comment.firstName(), comment.lastName()));
+    commentDto.setDateCreated(comment.dateCreated());
     return commentDto;
   }
 
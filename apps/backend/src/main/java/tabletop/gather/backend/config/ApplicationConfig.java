@@ -1,14 +1,23 @@
 package tabletop.gather.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.CachingUserDetailsService;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tabletop.gather.backend.auth.BoundedPasswordEncoder;
 import tabletop.gather.backend.user.UserRepository;
 
 @Configuration
@@ -19,7 +28,22 @@ public class ApplicationConfig {
     this.userRepository = userRepository;
   }
 
+  /**
+   * Users loaded by email for the authentication filter. {@link
+   * tabletop.gather.backend.user.UserService} removes users whenever their email, password or
+   * existence changes.
+   */
   @Bean
+  UserCache userCache(CacheManager cacheManager) throws Exception {
+    return new SpringCacheBasedUserCache(cacheManager.getCache(CacheConfig.USER_DETAILS));
+  }
+
+  /**
+   * Loads users from the database. The login uses this one, so passwords are always checked against
+   * the current hash, even after a change on another instance.
+   */
+  @Bean
+  @Primary
   UserDetailsService userDetailsService() {
     return username ->
         userRepository
@@ -27,9 +51,26 @@ public class ApplicationConfig {
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
   }
 
+  /** Loads users through the {@link UserCache}, for the authentication filter only. */
+  @Bean
+  CachingUserDetailsService cachingUserDetailsService(
+      UserDetailsService userDetailsService, UserCache userCache) {
+    CachingUserDetailsService cachingUserDetailsService =
+        new CachingUserDetailsService(userDetailsService);
+    cachingUserDetailsService.setUserCache(userCache);
+    return cachingUserDetailsService;
+  }
+
   @Bean
-  BCryptPasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  PasswordEncoder passwordEncoder(
+      @Value("${security.password-hashing.threads:0}") int threads,
+      @Value("${security.password-hashing.queue-capacity:32}") int queueCapacity,
+      MeterRegistry meterRegistry) {
+    return new BoundedPasswordEncoder(
+        new BCryptPasswordEncoder(),
+        threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+        queueCapacity,
+        meterRegistry);
   }
 
   @Bean
@@ -39,11 +80,12 @@ public class ApplicationConfig {
   }
 
   @Bean
-  AuthenticationProvider authenticationProvider() {
+  AuthenticationProvider authenticationProvider(
+      UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
-    authProvider.setUserDetailsService(userDetailsService());
-    authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setUserDetailsService(userDetailsService);
+    authProvider.setPasswordEncoder(passwordEncoder);
 
     return authProvider;
   }
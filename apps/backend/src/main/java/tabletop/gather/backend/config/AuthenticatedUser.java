@@ -0,0 +1,18 @@
+package tabletop.gather.backend.config;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link tabletop.gather.backend.user.UserDto} handler parameter to the user that the
+ * {@link JwtAuthenticationFilter} authenticated for the current request.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Parameter(hidden = true)
+public @interface AuthenticatedUser {}
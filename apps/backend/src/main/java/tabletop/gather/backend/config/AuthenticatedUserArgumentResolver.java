@@ -0,0 +1,54 @@
+package tabletop.gather.backend.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import tabletop.gather.backend.user.User;
+import tabletop.gather.backend.user.UserDto;
+import tabletop.gather.backend.user.UserService;
+
+/**
+ * Resolves {@link AuthenticatedUser} parameters from the principal in the security context, so
+ * resources don't have to look the user up again by the email in the token. The principal is either
+ * the user read from a self-contained token or the entity loaded for an older token.
+ */
+@Component
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+  private final UserService userService;
+
+  public AuthenticatedUserArgumentResolver(final UserService userService) {
+    this.userService = userService;
+  }
+
+  @Override
+  public boolean supportsParameter(final MethodParameter parameter) {
+    return parameter.hasParameterAnnotation(AuthenticatedUser.class)
+        && UserDto.class.isAssignableFrom(parameter.getParameterType());
+  }
+
+  @Override
+  public UserDto resolveArgument(
+      @NonNull final MethodParameter parameter,
+      final ModelAndViewContainer mavContainer,
+      @NonNull final NativeWebRequest webRequest,
+      final WebDataBinderFactory binderFactory) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+    Object principal = authentication == null ? null : authentication.getPrincipal();
+
+    if (principal instanceof UserDto user) {
+      return user;
+    }
+    if (principal instanceof User user) {
+      return userService.mapToDto(user, new UserDto());
+    }
+    throw new AuthenticationCredentialsNotFoundException("No authenticated user");
+  }
+}
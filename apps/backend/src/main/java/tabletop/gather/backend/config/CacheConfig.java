@@ -0,0 +1,49 @@
+package tabletop.gather.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the caches named under spring.cache, each with its own Caffeine spec from caches.*. Hit,
+ * miss and eviction counts are published as cache.* metrics on /actuator/metrics.
+ *
+ * <p>Changes evict entries on the instance making them only, other instances see a change once the
+ * entry has expired. The expiry of each cache is the bound on how stale it can be.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  /** Detail views of plans, keyed by plan id. */
+  public static final String PLAN_DETAILS = "planDetails";
+
+  /**
+   * Current token epoch of users, keyed by user id. Read on every authenticated request, its expiry
+   * is how long tokens revoked on another instance are still accepted.
+   */
+  public static final String TOKEN_EPOCHS = "tokenEpochs";
+
+  /** Users as loaded for the authentication filter, keyed by email. */
+  public static final String USER_DETAILS = "userDetails";
+
+  @Bean
+  CacheManagerCustomizer<CaffeineCacheManager> cacheSpecs(
+      @Value("${caches.plan-details:maximumSize=1000,expireAfterWrite=10m}") String planDetails,
+      @Value("${caches.token-epochs:maximumSize=100000,expireAfterWrite=1m}") String tokenEpochs,
+      @Value("${caches.user-details:maximumSize=10000,expireAfterWrite=5m}") String userDetails) {
+    return cacheManager -> {
+      register(cacheManager, PLAN_DETAILS, planDetails);
+      register(cacheManager, TOKEN_EPOCHS, tokenEpochs);
+      register(cacheManager, USER_DETAILS, userDetails);
+    };
+  }
+
+  private static void register(CaffeineCacheManager cacheManager, String name, String spec) {
+    cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+  }
+}
@@ -1,8 +1,12 @@
 package tabletop.gather.backend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.OffsetDateTime;
 import java.util.Optional;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.format.jackson.JacksonJsonFormatMapper;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.auditing.DateTimeProvider;
@@ -21,4 +25,12 @@ public class DomainConfig {
   public DateTimeProvider dateTimeProvider() {
     return () -> Optional.of(OffsetDateTime.now());
   }
+
+  /** Lets Hibernate (de-)serialize JSON columns with the application wide object mapper. */
+  @Bean
+  public HibernatePropertiesCustomizer jsonFormatMapperCustomizer(final ObjectMapper objectMapper) {
+    return properties ->
+        properties.put(
+            AvailableSettings.JSON_FORMAT_MAPPER, new JacksonJsonFormatMapper(objectMapper));
+  }
 }
@@ -0,0 +1,62 @@
+package tabletop.gather.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+import tabletop.gather.backend.jwt.TokenRejection;
+
+/**
+ * Answers unauthenticated requests with a bodiless 401 and a WWW-Authenticate challenge naming the
+ * reason. Rejections are counted per reason as jwt.rejected on /actuator/metrics, so bot traffic
+ * and stale clients can be told apart.
+ */
+@Component
+public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
+
+  private record Rejection(Counter counter, String challenge) {}
+
+  private final Map<TokenRejection, Rejection> rejections = new EnumMap<>(TokenRejection.class);
+
+  public JwtAuthenticationEntryPoint(final MeterRegistry meterRegistry) {
+    for (TokenRejection reason : TokenRejection.values()) {
+      Counter counter =
+          Counter.builder("jwt.rejected")
+              .description("Requests rejected with 401")
+              .tag("reason", reason.getReason())
+              .register(meterRegistry);
+      String challenge =
+          reason == TokenRejection.MISSING
+              ? "Bearer"
+              : "Bearer error=\"invalid_token\", error_description=\"" + reason.getReason() + "\"";
+      rejections.put(reason, new Rejection(counter, challenge));
+    }
+  }
+
+  @Override
+  public void commence(
+      final HttpServletRequest request,
+      final HttpServletResponse response,
+      final AuthenticationException authException) {
+    reject(response, TokenRejection.MISSING);
+  }
+
+  /**
+   * Writes the 401 for the given reason.
+   *
+   * @param response the response to write to
+   * @param reason the reason the request is rejected
+   */
+  public void reject(final HttpServletResponse response, final TokenRejection reason) {
+    final Rejection rejection = rejections.get(reason);
+    rejection.counter().increment();
+    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, rejection.challenge());
+  }
+}
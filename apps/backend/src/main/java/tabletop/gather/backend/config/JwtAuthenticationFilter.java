@@ -1,38 +1,69 @@
 package tabletop.gather.backend.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.CachingUserDetailsService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.jwt.TokenEpochCache;
+import tabletop.gather.backend.jwt.TokenRejection;
+import tabletop.gather.backend.user.UserDto;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+  private static final RequestMatcher PUBLIC_REQUESTS =
+      new OrRequestMatcher(
+          Arrays.stream(SecurityConfig.AUTH_WHITELIST)
+              .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern))
+              .toList());
+
   private final HandlerExceptionResolver handlerExceptionResolver;
 
   private final JwtService jwtService;
-  private final UserDetailsService userDetailsService;
+  private final CachingUserDetailsService userDetailsService;
+  private final TokenEpochCache tokenEpochCache;
+  private final JwtAuthenticationEntryPoint authenticationEntryPoint;
 
   public JwtAuthenticationFilter(
       JwtService jwtService,
-      UserDetailsService userDetailsService,
+      CachingUserDetailsService userDetailsService,
+      TokenEpochCache tokenEpochCache,
+      JwtAuthenticationEntryPoint authenticationEntryPoint,
       HandlerExceptionResolver handlerExceptionResolver) {
     this.jwtService = jwtService;
     this.userDetailsService = userDetailsService;
+    this.tokenEpochCache = tokenEpochCache;
+    this.authenticationEntryPoint = authenticationEntryPoint;
     this.handlerExceptionResolver = handlerExceptionResolver;
   }
 
+  /** Public endpoints ignore the token, clients may still send a stale one along. */
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return PUBLIC_REQUESTS.matches(request);
+  }
+
   @Override
   protected void doFilterInternal(
       @NonNull HttpServletRequest request,
@@ -47,22 +78,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     try {
-      final String jwt = authHeader.substring(7);
-      final String username = jwtService.extractUsername(jwt);
-
-      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-      if (username != null && authentication == null) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-        if (jwtService.isTokenValid(jwt, userDetails)) {
-          UsernamePasswordAuthenticationToken authToken =
-              new UsernamePasswordAuthenticationToken(
-                  userDetails, null, userDetails.getAuthorities());
+      final Optional<TokenRejection> rejection = authenticate(request, authHeader);
 
-          authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-          SecurityContextHolder.getContext().setAuthentication(authToken);
-        }
+      if (rejection.isPresent()) {
+        authenticationEntryPoint.reject(response, rejection.get());
+        return;
       }
 
       filterChain.doFilter(request, response);
@@ -70,4 +90,67 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       handlerExceptionResolver.resolveException(request, response, null, exception);
     }
   }
+
+  /**
+   * Authenticates the request by its token. Malformed, unsigned and expired tokens are rejected
+   * before the signature is verified.
+   *
+   * @return the reason to reject the request, empty if it may continue
+   */
+  private Optional<TokenRejection> authenticate(HttpServletRequest request, String authHeader) {
+    final Optional<TokenRejection> precheck = jwtService.precheck(authHeader);
+    if (precheck.isPresent()) {
+      return precheck;
+    }
+
+    final Claims claims;
+    try {
+      claims = jwtService.extractAllClaims(authHeader);
+    } catch (JwtException | IllegalArgumentException exception) {
+      return Optional.of(TokenRejection.INVALID);
+    }
+
+    if (jwtService.isRevoked(claims)) {
+      return Optional.of(TokenRejection.REVOKED);
+    }
+
+    final String username = claims.getSubject();
+    if (username == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+      return Optional.empty();
+    }
+
+    if (jwtService.isSelfContained(claims)) {
+      // The signature vouches for the claims, only the epoch has to be current
+      UserDto user = jwtService.extractUser(claims);
+
+      if (!tokenEpochCache.isCurrent(user.getId(), jwtService.extractEpoch(claims))) {
+        return Optional.of(TokenRejection.STALE);
+      }
+      setAuthentication(request, user, List.of());
+    } else {
+      final UserDetails userDetails;
+      try {
+        userDetails = this.userDetailsService.loadUserByUsername(username);
+      } catch (UsernameNotFoundException exception) {
+        return Optional.of(TokenRejection.STALE);
+      }
+
+      if (!jwtService.isTokenValid(claims, userDetails)) {
+        return Optional.of(TokenRejection.STALE);
+      }
+      setAuthentication(request, userDetails, userDetails.getAuthorities());
+    }
+    return Optional.empty();
+  }
+
+  private void setAuthentication(
+      HttpServletRequest request,
+      Object principal,
+      Collection<? extends GrantedAuthority> authorities) {
+    UsernamePasswordAuthenticationToken authToken =
+        new UsernamePasswordAuthenticationToken(principal, null, authorities);
+
+    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    SecurityContextHolder.getContext().setAuthentication(authToken);
+  }
 }
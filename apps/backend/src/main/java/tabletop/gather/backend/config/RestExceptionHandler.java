@@ -3,6 +3,7 @@ package tabletop.gather.backend.config;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import java.util.List;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -14,6 +15,7 @@ import org.springframework.web.server.ResponseStatusException;
 import tabletop.gather.backend.util.ErrorResponse;
 import tabletop.gather.backend.util.FieldError;
 import tabletop.gather.backend.util.NotFoundException;
+import tabletop.gather.backend.util.TooManyRequestsException;
 
 @RestControllerAdvice(annotations = RestController.class)
 public class RestExceptionHandler {
@@ -27,6 +29,18 @@ public class RestExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<ErrorResponse> handleTooManyRequests(
+      final TooManyRequestsException exception) {
+    final ErrorResponse errorResponse = new ErrorResponse();
+    errorResponse.setHttpStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    errorResponse.setException(exception.getClass().getSimpleName());
+    errorResponse.setMessage(exception.getMessage());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+        .body(errorResponse);
+  }
+
   @ExceptionHandler(DataIntegrityViolationException.class)
   public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(
       final DataIntegrityViolationException exception) {
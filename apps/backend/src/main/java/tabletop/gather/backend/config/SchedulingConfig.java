@@ -0,0 +1,9 @@
+package tabletop.gather.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables @Scheduled maintenance tasks, such as syncing the {@code TokenRevocationList}. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -21,16 +21,19 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
   private final AuthenticationProvider authenticationProvider;
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
-  private static final String[] AUTH_WHITELIST = {
+  static final String[] AUTH_WHITELIST = {
     "/auth/**", "/v3/api-docs/**", "/api-docs/**", "/api-docs.yaml", "/swagger-ui/**",
   };
 
   public SecurityConfig(
       JwtAuthenticationFilter jwtAuthenticationFilter,
+      JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
       AuthenticationProvider authenticationProvider) {
     this.authenticationProvider = authenticationProvider;
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
   }
 
   @Bean
@@ -48,6 +51,8 @@ public class SecurityConfig {
                 .authenticated());
     http.sessionManagement(
         session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+    http.exceptionHandling(
+        exceptions -> exceptions.authenticationEntryPoint(jwtAuthenticationEntryPoint));
     http.authenticationProvider(authenticationProvider)
         .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
     http.headers(
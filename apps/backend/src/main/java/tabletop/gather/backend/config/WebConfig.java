@@ -0,0 +1,20 @@
+package tabletop.gather.backend.config;
+
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+  private final AuthenticatedUserArgumentResolver authenticatedUserArgumentResolver;
+
+  public WebConfig(final AuthenticatedUserArgumentResolver authenticatedUserArgumentResolver) {
+    this.authenticatedUserArgumentResolver = authenticatedUserArgumentResolver;
+  }
+
+  @Override
+  public void addArgumentResolvers(final List<HandlerMethodArgumentResolver> resolvers) {
+    resolvers.add(authenticatedUserArgumentResolver);
+  }
+}
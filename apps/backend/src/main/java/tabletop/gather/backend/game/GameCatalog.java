@@ -0,0 +1,98 @@
+package tabletop.gather.backend.game;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tabletop.gather.backend.util.EntityVersion;
+
+/**
+ * Holds the {@link GameSearchIndex} of the game catalog. The catalog is reference data written by
+ * migrations and the {@link GameImportService} only, so the index is built on startup and rebuilt
+ * when the version of the catalog changes. A rebuilt index replaces the old one at once, searches
+ * never see a partial index.
+ *
+ * <p>Catalogs larger than {@code games.search-index.max-games} are not indexed, searches then go to
+ * the database. The size of the index is reported as {@code games.search.index.size} and {@code
+ * games.search.index.games}.
+ */
+@Component
+public class GameCatalog implements InitializingBean {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GameCatalog.class);
+
+  private record Snapshot(EntityVersion version, GameSearchIndex index) {}
+
+  private final GameRepository gameRepository;
+  private final int maxGames;
+
+  private volatile Snapshot snapshot = new Snapshot(null, null);
+
+  public GameCatalog(
+      final GameRepository gameRepository,
+      @Value("${games.search-index.max-games:100000}") final int maxGames,
+      final MeterRegistry meterRegistry) {
+    this.gameRepository = gameRepository;
+    this.maxGames = maxGames;
+    Gauge.builder(
+            "games.search.index.size",
+            this,
+            catalog -> catalog.getSearchIndex().map(GameSearchIndex::estimatedSize).orElse(0L))
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder(
+            "games.search.index.games",
+            this,
+            catalog -> catalog.getSearchIndex().map(GameSearchIndex::size).orElse(0))
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    refresh();
+  }
+
+  /**
+   * @return the index of the catalog, empty if the catalog is too large to be indexed
+   */
+  public Optional<GameSearchIndex> getSearchIndex() {
+    return Optional.ofNullable(snapshot.index());
+  }
+
+  /** Rebuilds the index if the catalog changed since it was built. */
+  @Scheduled(
+      fixedDelayString = "${games.search-index.refresh-interval:300000}",
+      initialDelayString = "${games.search-index.refresh-interval:300000}")
+  public synchronized void refresh() {
+    final EntityVersion version = gameRepository.findCatalogVersion();
+    if (!version.equals(snapshot.version())) {
+      rebuild(version);
+    }
+  }
+
+  /** Rebuilds the index, for callers that just changed the catalog. */
+  public synchronized void rebuild() {
+    rebuild(gameRepository.findCatalogVersion());
+  }
+
+  private void rebuild(final EntityVersion version) {
+    if (version.count() > maxGames) {
+      LOGGER.warn(
+          "Game catalog has {} games, more than {}, searching the database instead",
+          version.count(),
+          maxGames);
+      snapshot = new Snapshot(version, null);
+      return;
+    }
+    final GameSearchIndex index =
+        GameSearchIndex.of(gameRepository.findAllNamedBy(Sort.by("name", "id")));
+    snapshot = new Snapshot(version, index);
+    LOGGER.info(
+        "Indexed {} games for search, about {} KiB", index.size(), index.estimatedSize() / 1024);
+  }
+}
@@ -0,0 +1,52 @@
+package tabletop.gather.backend.game;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Position in the catalog ordered by name and id, the last game a client has seen. Encoded as an
+ * opaque url-safe token, so clients do not depend on its contents.
+ *
+ * @param name the name of the last game seen
+ * @param id the id of the last game seen
+ */
+public record GameCursor(String name, UUID id) {
+  private static final int UUID_LENGTH = 36;
+
+  /**
+   * @param game the last game of a slice
+   * @return the cursor continuing after the game
+   */
+  public static GameCursor of(final GameDto game) {
+    return new GameCursor(game.getName(), game.getId());
+  }
+
+  /**
+   * Decodes a token created by {@link #encode()}.
+   *
+   * @param token the token
+   * @return the cursor
+   * @throws ResponseStatusException with 400 if the token is not a valid cursor
+   */
+  public static GameCursor decode(final String token) {
+    try {
+      final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      return new GameCursor(
+          value.substring(UUID_LENGTH), UUID.fromString(value.substring(0, UUID_LENGTH)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+    }
+  }
+
+  /**
+   * @return the cursor as url-safe token
+   */
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((id + name).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,23 @@
+package tabletop.gather.backend.game;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a catalog import.
+ *
+ * @param read the number of games read from the dump
+ * @param inserted the number of games added to the catalog
+ * @param skipped the number of games whose id was already in the catalog
+ * @param rejected the number of invalid records, not imported
+ * @param duration the time the import took
+ */
+public record GameImportResult(
+    long read, long inserted, long skipped, long rejected, Duration duration) {
+
+  /**
+   * @return the games read per second
+   */
+  public long throughput() {
+    return read * 1000 / Math.max(1, duration.toMillis());
+  }
+}
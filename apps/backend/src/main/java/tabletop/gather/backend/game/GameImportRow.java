@@ -0,0 +1,24 @@
+package tabletop.gather.backend.game;
+
+import java.util.UUID;
+
+/**
+ * A game as read from a catalog dump, one CSV record or JSON line. CSV headers may use the column
+ * or the property names, e.g. {@code min_player} or {@code minPlayer}.
+ *
+ * <p>A max player of 0 is read as no limit, the catalog shipped with the migrations uses it so.
+ */
+public record GameImportRow(
+    UUID id,
+    String name,
+    String description,
+    Integer minPlayer,
+    Integer maxPlayer,
+    String imageUrl) {
+
+  public GameImportRow {
+    if (maxPlayer != null && maxPlayer == 0) {
+      maxPlayer = null;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package tabletop.gather.backend.game;
+
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Imports the catalog dump given as {@code games.import.file} once the application started. */
+@Component
+@ConditionalOnProperty("games.import.file")
+public class GameImportRunner implements ApplicationRunner {
+  private final GameImportService gameImportService;
+  private final Path file;
+
+  public GameImportRunner(
+      final GameImportService gameImportService, @Value("${games.import.file}") final Path file) {
+    this.gameImportService = gameImportService;
+    this.file = file;
+  }
+
+  @Override
+  public void run(final ApplicationArguments args) throws Exception {
+    gameImportService.importFile(file);
+  }
+}
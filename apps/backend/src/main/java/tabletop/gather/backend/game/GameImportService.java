@@ -0,0 +1,319 @@
+package tabletop.gather.backend.game;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tabletop.gather.backend.util.CsvReader;
+
+/**
+ * Imports games from a catalog dump, CSV with a header record or JSON lines. The dump is streamed,
+ * only one batch of games is held in memory. Each batch is inserted by a single statement that
+ * unnests one array per column, games whose id is already in the catalog are skipped by the
+ * database. Every batch commits on its own, so an interrupted import can simply be run again.
+ *
+ * <p>Invalid records are logged with their line and skipped. Progress and throughput are logged
+ * while importing, the search index is rebuilt once the import added games.
+ */
+@Service
+public class GameImportService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GameImportService.class);
+
+  private static final int PROGRESS_INTERVAL = 10_000;
+  private static final int MAX_NAME_LENGTH = 255;
+  private static final int MAX_IMAGE_URL_LENGTH = 500;
+  private static final List<String> REQUIRED_COLUMNS = List.of("id", "name", "minplayer");
+  private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+  private static final String INSERT =
+      """
+      insert into %s.games
+        (id, name, description, min_player, max_player, image_url, date_created, last_updated)
+      select game.*, now(), now()
+      from unnest(?::uuid[], ?::varchar[], ?::text[], ?::int[], ?::int[], ?::varchar[])
+        as game (id, name, description, min_player, max_player, image_url)
+      on conflict (id) do nothing
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectReader rowReader;
+  private final GameCatalog gameCatalog;
+  private final int batchSize;
+  private final String insert;
+
+  public GameImportService(
+      final JdbcTemplate jdbcTemplate,
+      final ObjectMapper objectMapper,
+      final GameCatalog gameCatalog,
+      @Value("${games.import.batch-size:1000}") final int batchSize,
+      @Value("${spring.jpa.properties.hibernate.default_schema:public}") final String schema) {
+    this.jdbcTemplate = jdbcTemplate;
+    // Dumps often carry more properties than a game has
+    this.rowReader =
+        objectMapper
+            .readerFor(GameImportRow.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.gameCatalog = gameCatalog;
+    this.batchSize = batchSize;
+    this.insert = INSERT.formatted('"' + schema + '"');
+  }
+
+  /**
+   * Imports a dump, the format is taken from the file extension.
+   *
+   * @param file a .csv or .jsonl file, UTF-8 encoded
+   * @return the outcome of the import
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the format is not supported
+   */
+  public GameImportResult importFile(final Path file) throws IOException {
+    final String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    final boolean csv = fileName.endsWith(".csv");
+    if (!csv && !fileName.endsWith(".jsonl") && !fileName.endsWith(".ndjson")) {
+      throw new IllegalArgumentException("unsupported catalog dump " + file);
+    }
+    LOGGER.info("Importing games from {}", file);
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return csv ? importCsv(reader) : importJsonLines(reader);
+    }
+  }
+
+  /**
+   * Imports games from CSV. The first record names the columns, their order is free.
+   *
+   * @param reader the CSV text
+   * @return the outcome of the import
+   * @throws IOException if the text cannot be read
+   * @throws IllegalArgumentException if the header lacks a required column
+   */
+  public GameImportResult importCsv(final Reader reader) throws IOException {
+    final CsvReader csv = new CsvReader(reader);
+    final List<String> header = csv.read();
+    if (header == null) {
+      return new ImportRun().finish();
+    }
+    final Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      // Exports from spreadsheets often start with a byte order mark
+      final String column = i == 0 ? stripByteOrderMark(header.get(i)) : header.get(i);
+      columns.put(column.replaceAll("[_\\s-]", "").toLowerCase(Locale.ROOT), i);
+    }
+    final List<String> missing =
+        REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+    if (!missing.isEmpty()) {
+      throw new IllegalArgumentException("catalog dump lacks the columns " + missing);
+    }
+
+    final ImportRun run = new ImportRun();
+    long line = csv.getLineNumber();
+    for (List<String> fields = csv.read(); fields != null; fields = csv.read()) {
+      if (fields.size() > 1 || !fields.get(0).isBlank()) {
+        try {
+          run.add(
+              new GameImportRow(
+                  uuid(field(fields, columns, "id")),
+                  field(fields, columns, "name"),
+                  field(fields, columns, "description"),
+                  integer(field(fields, columns, "minplayer")),
+                  integer(field(fields, columns, "maxplayer")),
+                  field(fields, columns, "imageurl")),
+              line);
+        } catch (IllegalArgumentException exception) {
+          run.reject(line, exception.getMessage());
+        }
+      }
+      line = csv.getLineNumber();
+    }
+    return run.finish();
+  }
+
+  /**
+   * Imports games from JSON lines, one object with the properties of {@link GameImportRow} per
+   * line. Other properties are ignored.
+   *
+   * @param reader the JSON lines
+   * @return the outcome of the import
+   * @throws IOException if the text cannot be read
+   */
+  public GameImportResult importJsonLines(final BufferedReader reader) throws IOException {
+    final ImportRun run = new ImportRun();
+    long line = 0;
+    for (String json = reader.readLine(); json != null; json = reader.readLine()) {
+      line++;
+      if (line == 1) {
+        json = stripByteOrderMark(json);
+      }
+      if (!json.isBlank()) {
+        try {
+          final GameImportRow row = rowReader.readValue(json);
+          if (row == null) {
+            run.reject(line, "not a game");
+          } else {
+            run.add(row, line);
+          }
+        } catch (JsonProcessingException exception) {
+          run.reject(line, exception.getOriginalMessage());
+        }
+      }
+    }
+    return run.finish();
+  }
+
+  private static String field(
+      final List<String> fields, final Map<String, Integer> columns, final String column) {
+    final Integer index = columns.get(column);
+    if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+      return null;
+    }
+    return fields.get(index);
+  }
+
+  private static String stripByteOrderMark(final String value) {
+    return value.startsWith(BYTE_ORDER_MARK) ? value.substring(1) : value;
+  }
+
+  private static UUID uuid(final String value) {
+    return value == null ? null : UUID.fromString(value.trim());
+  }
+
+  private static Integer integer(final String value) {
+    return value == null ? null : Integer.valueOf(value.trim());
+  }
+
+  private static String validate(final GameImportRow row) {
+    if (row.id() == null) {
+      return "missing id";
+    }
+    if (row.name() == null || row.name().isBlank()) {
+      return "missing name";
+    }
+    if (row.name().length() > MAX_NAME_LENGTH) {
+      return "name longer than " + MAX_NAME_LENGTH;
+    }
+    if (row.minPlayer() == null) {
+      return "missing min player";
+    }
+    if (row.maxPlayer() != null && row.maxPlayer() < row.minPlayer()) {
+      return "max player below min player";
+    }
+    if (row.imageUrl() != null && row.imageUrl().length() > MAX_IMAGE_URL_LENGTH) {
+      return "image url longer than " + MAX_IMAGE_URL_LENGTH;
+    }
+    return null;
+  }
+
+  /** The state of one import: its counters and the batch not inserted yet. */
+  private final class ImportRun {
+    private final long startedAt = System.nanoTime();
+    private final UUID[] ids = new UUID[batchSize];
+    private final String[] names = new String[batchSize];
+    private final String[] descriptions = new String[batchSize];
+    private final Integer[] minPlayers = new Integer[batchSize];
+    private final Integer[] maxPlayers = new Integer[batchSize];
+    private final String[] imageUrls = new String[batchSize];
+    private int size;
+    private long read;
+    private long inserted;
+    private long rejected;
+
+    private void add(final GameImportRow row, final long line) {
+      final String error = validate(row);
+      if (error != null) {
+        reject(line, error);
+        return;
+      }
+      ids[size] = row.id();
+      names[size] = row.name();
+      descriptions[size] = row.description();
+      minPlayers[size] = row.minPlayer();
+      maxPlayers[size] = row.maxPlayer();
+      imageUrls[size] = row.imageUrl();
+      size++;
+      read++;
+      if (size == batchSize) {
+        flush();
+      }
+      if (read % PROGRESS_INTERVAL == 0) {
+        LOGGER.info(
+            "Imported {} games, {} new, {} games/s", read, inserted, elapsed().throughput());
+      }
+    }
+
+    private void reject(final long line, final String error) {
+      read++;
+      rejected++;
+      LOGGER.warn("Skipping the game on line {}: {}", line, error);
+    }
+
+    private void flush() {
+      if (size == 0) {
+        return;
+      }
+      final int count = size;
+      inserted +=
+          jdbcTemplate.update(
+              insert,
+              statement -> {
+                final Connection connection = statement.getConnection();
+                statement.setArray(1, connection.createArrayOf("uuid", Arrays.copyOf(ids, count)));
+                statement.setArray(
+                    2, connection.createArrayOf("varchar", Arrays.copyOf(names, count)));
+                statement.setArray(
+                    3, connection.createArrayOf("text", Arrays.copyOf(descriptions, count)));
+                statement.setArray(
+                    4, connection.createArrayOf("int4", Arrays.copyOf(minPlayers, count)));
+                statement.setArray(
+                    5, connection.createArrayOf("int4", Arrays.copyOf(maxPlayers, count)));
+                statement.setArray(
+                    6, connection.createArrayOf("varchar", Arrays.copyOf(imageUrls, count)));
+              });
+      size = 0;
+    }
+
+    private GameImportResult elapsed() {
+      final long valid = read - rejected;
+      return new GameImportResult(
+          read,
+          inserted,
+          valid - size - inserted,
+          rejected,
+          Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    private GameImportResult finish() {
+      flush();
+      final GameImportResult result = elapsed();
+      LOGGER.info(
+          "Imported {} games in {} ms, {} new, {} already known, {} rejected, {} games/s",
+          result.read(),
+          result.duration().toMillis(),
+          result.inserted(),
+          result.skipped(),
+          result.rejected(),
+          result.throughput());
+      if (result.inserted() > 0) {
+        gameCatalog.rebuild();
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,6 @@
+package tabletop.gather.backend.game;
+
+import java.util.UUID;
+
+/** The columns of a game the {@link GameSearchIndex} ranks by. */
+public record GameName(UUID id, String name) {}
@@ -0,0 +1,14 @@
+package tabletop.gather.backend.game;
+
+import java.util.UUID;
+
+/** A game in the collection of a user, with the game columns exposed by {@link GameDto}. */
+public record GameOwnership(
+    UUID ownerId,
+    String ownerName,
+    UUID id,
+    String name,
+    String description,
+    Integer minPlayer,
+    Integer maxPlayer,
+    String imageUrl) {}
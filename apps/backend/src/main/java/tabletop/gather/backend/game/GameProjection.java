@@ -0,0 +1,12 @@
+package tabletop.gather.backend.game;
+
+import java.util.UUID;
+
+/** Read-only projection of the game columns exposed by {@link GameDto}. */
+public record GameProjection(
+    UUID id,
+    String name,
+    String description,
+    Integer minPlayer,
+    Integer maxPlayer,
+    String imageUrl) {}
@@ -1,16 +1,112 @@
 package tabletop.gather.backend.game;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import tabletop.gather.backend.util.EntityVersion;
 
 public interface GameRepository extends JpaRepository<Game, UUID> {
-  Page<Game> findByNameContainingIgnoreCase(String name, Pageable pageable);
+  /**
+   * Find a slice of all games, without counting them.
+   *
+   * @param pageable the page, sorted by an indexed order
+   * @return the games of the page
+   */
+  Slice<GameProjection> findProjectedBy(Pageable pageable);
 
-  List<Game> findByUsers_Id(UUID userId, Sort sort);
+  /**
+   * Find a slice of the games after a position in the order by name and id. The row comparison is a
+   * range on the (name, id) index, so every slice costs the same however deep it is.
+   *
+   * @param name the name of the last game seen
+   * @param id the id of the last game seen
+   * @param pageable the first page, unsorted, of the size of the slice
+   * @return the games after the position
+   */
+  @Query(
+      """
+      select new tabletop.gather.backend.game.GameProjection(
+        g.id, g.name, g.description, g.minPlayer, g.maxPlayer, g.imageUrl)
+      from Game g
+      where (g.name, g.id) > (:name, :id)
+      order by g.name, g.id
+      """)
+  Slice<GameProjection> findProjectedAfter(String name, UUID id, Pageable pageable);
 
-  List<Game> findByUsersGatheringsPlanId(UUID id);
+  /**
+   * Find games whose name contains the search term, ignoring case, most similar names first. The
+   * trigram index on games.name serves the ilike, and no count is run for the slice.
+   *
+   * @param pattern the search term as ilike pattern, with %, _ and \ escaped
+   * @param name the search term to rank by
+   * @param pageable the page, unsorted
+   * @return the matching games of the page
+   */
+  @Query(
+      """
+      select new tabletop.gather.backend.game.GameProjection(
+        g.id, g.name, g.description, g.minPlayer, g.maxPlayer, g.imageUrl)
+      from Game g
+      where g.name ilike :pattern escape '\\'
+      order by function('similarity', g.name, :name) desc, g.name, g.id
+      """)
+  Slice<GameProjection> searchByName(String pattern, String name, Pageable pageable);
+
+  /**
+   * Find the ids and names of all games, for the in-memory search index.
+   *
+   * @param sort the order of the unfiltered listing
+   * @return all games
+   */
+  List<GameName> findAllNamedBy(Sort sort);
+
+  /**
+   * Find the games with the given ids, e.g. a page found in the in-memory search index.
+   *
+   * @param ids the ids of the games
+   * @return the games, in no particular order
+   */
+  List<GameProjection> findProjectedByIdIn(Collection<UUID> ids);
+
+  List<GameProjection> findProjectedByUsers_Id(UUID userId, Sort sort);
+
+  /**
+   * Find the games in the collections of the users attending any gathering of a plan. Each pair of
+   * owner and game is returned once, however many gatherings the owner attends.
+   *
+   * @param planId the id of the plan
+   * @return the collections of the attendees, ordered by game
+   */
+  @Query(
+      """
+      select new tabletop.gather.backend.game.GameOwnership(
+        u.id, concat(u.firstName, ' ', u.lastName),
+        g.id, g.name, g.description, g.minPlayer, g.maxPlayer, g.imageUrl)
+      from User u join u.games g
+      where u.id in (
+        select a.id from Gathering ga join ga.users a where ga.plan.id = :planId)
+      order by g.name, g.id
+      """)
+  List<GameOwnership> findOwnershipsByPlanId(UUID planId);
+
+  @Query(
+      """
+      select new tabletop.gather.backend.util.EntityVersion(g.lastUpdated, 1L)
+      from Game g
+      where g.id = :id
+      """)
+  Optional<EntityVersion> findVersionById(UUID id);
+
+  @Query(
+      """
+      select new tabletop.gather.backend.util.EntityVersion(max(g.lastUpdated), count(g))
+      from Game g
+      """)
+  EntityVersion findCatalogVersion();
 }
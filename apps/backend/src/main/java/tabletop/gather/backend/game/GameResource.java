@@ -3,15 +3,18 @@ package tabletop.gather.backend.game;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import java.util.List;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import tabletop.gather.backend.jwt.JwtService;
+import org.springframework.web.server.ResponseStatusException;
+import tabletop.gather.backend.config.AuthenticatedUser;
+import tabletop.gather.backend.user.UserDto;
+import tabletop.gather.backend.util.ConditionalResponse;
 
 @RestController
 @RequestMapping(value = "/api/games", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -19,38 +22,56 @@ public class GameResource {
 
   private final GameService gameService;
 
-  private final JwtService jwtService;
-
-  public GameResource(final GameService gameService, final JwtService jwtService) {
+  public GameResource(final GameService gameService) {
     this.gameService = gameService;
-    this.jwtService = jwtService;
   }
 
   /**
-   * Get all games by containing name
+   * Get all games by containing name, the most similar names first. With a cursor instead of a
+   * page, all games are browsed by name and the cursor of the next slice is linked in the {@code
+   * Link} header with rel="next".
    *
    * @param name the name of the game
-   * @return all games filtered by containing name
+   * @param cursor the cursor of the slice, empty for the first one
+   * @return all games filtered by containing name, without total count
    */
   @GetMapping
-  public ResponseEntity<Page<GameDto>> getAllGames(
+  public ResponseEntity<Slice<GameDto>> getAllGames(
       @RequestParam(name = "name", required = false) String name,
+      @RequestParam(name = "cursor", required = false) String cursor,
       @RequestParam(name = "page", defaultValue = "0") int page,
       @RequestParam(name = "pageSize", defaultValue = "20") int pageSize) {
-    Pageable pageable = PageRequest.of(page, pageSize, Sort.by("name"));
-    return ResponseEntity.ok(gameService.findByName(name, pageable));
+    if (cursor == null) {
+      Pageable pageable = PageRequest.of(page, pageSize);
+      return ResponseEntity.ok(gameService.findByName(name, pageable));
+    }
+    if (name != null && !name.isBlank()) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "cursor cannot be combined with name");
+    }
+
+    final Slice<GameDto> games = gameService.findAfter(cursor, pageSize);
+    if (!games.hasNext()) {
+      return ResponseEntity.ok(games);
+    }
+    final String next =
+        GameCursor.of(games.getContent().get(games.getNumberOfElements() - 1)).encode();
+    return ResponseEntity.ok()
+        .header(
+            HttpHeaders.LINK,
+            String.format("</api/games?cursor=%s&pageSize=%d>; rel=\"next\"", next, pageSize))
+        .body(games);
   }
 
   /**
    * Get all games of the authenticated user
    *
-   * @param token the token of the authenticated user
+   * @param user the authenticated user
    * @return all games filtered by user
    */
   @GetMapping("/me")
-  public ResponseEntity<List<GameDto>> getMyGames(
-      @RequestHeader("Authorization") final String token) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+  public ResponseEntity<List<GameDto>> getMyGames(@AuthenticatedUser final UserDto user) {
+    UUID userId = user.getId();
     return ResponseEntity.ok(gameService.findByUserId(userId));
   }
 
@@ -73,8 +94,11 @@ public class GameResource {
    * @return the game
    */
   @GetMapping("/{id}")
-  public ResponseEntity<GameDto> getGame(@PathVariable(name = "id") final UUID id) {
-    return ResponseEntity.ok(gameService.get(id));
+  public ResponseEntity<GameDto> getGame(
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+      @PathVariable(name = "id") final UUID id) {
+    return ConditionalResponse.of(
+        ifNoneMatch, gameService.getVersion(id), () -> gameService.get(id));
   }
 
   /**
@@ -97,9 +121,8 @@ public class GameResource {
   @PostMapping("/{id}/add")
   @ApiResponse(responseCode = "201")
   public ResponseEntity<Void> addGameToUser(
-      @RequestHeader("Authorization") final String token,
-      @PathVariable(name = "id") final UUID id) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+      @AuthenticatedUser final UserDto user, @PathVariable(name = "id") final UUID id) {
+    UUID userId = user.getId();
     gameService.addUser(id, userId);
     return ResponseEntity.status(HttpStatus.CREATED).build();
   }
@@ -113,9 +136,8 @@ public class GameResource {
   @DeleteMapping("/{id}/remove")
   @ApiResponse(responseCode = "204")
   public ResponseEntity<Void> removeGameFromUser(
-      @RequestHeader("Authorization") final String token,
-      @PathVariable(name = "id") final UUID id) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+      @AuthenticatedUser final UserDto user, @PathVariable(name = "id") final UUID id) {
+    UUID userId = user.getId();
     gameService.removeUser(id, userId);
     return ResponseEntity.noContent().build();
   }
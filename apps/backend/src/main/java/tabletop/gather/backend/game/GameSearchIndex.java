@@ -0,0 +1,325 @@
+package tabletop.gather.backend.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Immutable in-memory index over the game catalog, answering the same searches as {@link
+ * GameRepository#searchByName}: names containing the term ignoring case, the most similar names
+ * first, then in catalog order. Only ids and names are held, searches return the ids of the games
+ * of a page and callers load those games.
+ *
+ * <p>Every three characters of a lowercased name are hashed to a trigram key. The keys are kept
+ * sorted in one array, the games having each key in a second one (postings), both primitive. A
+ * search intersects the postings of the trigrams of the term and confirms the candidates with a
+ * substring check, so hash collisions only cost a comparison. Terms shorter than a trigram scan all
+ * names. Matches are ranked by trigram similarity computed like pg_trgm does.
+ */
+public final class GameSearchIndex {
+  private static final int GRAM = 3;
+  private static final int[] NO_MATCHES = new int[0];
+
+  // Rough JVM sizes for the footprint estimate
+  private static final long ARRAY_HEADER = 16;
+  private static final long OBJECT_HEADER = 16;
+  private static final long REFERENCE = 8;
+  private static final long STRING_OVERHEAD = 40;
+  private static final long UUID_SIZE = 32;
+  private static final long POSITION_ENTRY = 64;
+
+  private final UUID[] ids;
+  private final String[] names;
+  private final Map<UUID, Integer> positions;
+  private final String[] normalizedNames;
+  private final long[][] similarityGrams;
+  private final int[] keys;
+  private final int[] offsets;
+  private final int[] postings;
+  private final long estimatedSize;
+
+  private GameSearchIndex(
+      final UUID[] ids,
+      final String[] names,
+      final Map<UUID, Integer> positions,
+      final String[] normalizedNames,
+      final long[][] similarityGrams,
+      final int[] keys,
+      final int[] offsets,
+      final int[] postings) {
+    this.ids = ids;
+    this.names = names;
+    this.positions = positions;
+    this.normalizedNames = normalizedNames;
+    this.similarityGrams = similarityGrams;
+    this.keys = keys;
+    this.offsets = offsets;
+    this.postings = postings;
+    this.estimatedSize = estimateSize();
+  }
+
+  /**
+   * Builds the index.
+   *
+   * @param catalog all games, in the order of the unfiltered listing
+   * @return the index
+   */
+  public static GameSearchIndex of(final List<GameName> catalog) {
+    final int size = catalog.size();
+    final UUID[] ids = new UUID[size];
+    final String[] names = new String[size];
+    final Map<UUID, Integer> positions = new HashMap<>(2 * size);
+    final String[] normalizedNames = new String[size];
+    final long[][] similarityGrams = new long[size][];
+
+    // (key, game) pairs, sorted they group the postings of each key in game order
+    long[] pairs = new long[64];
+    int pairCount = 0;
+    for (int game = 0; game < size; game++) {
+      ids[game] = catalog.get(game).id();
+      names[game] = catalog.get(game).name();
+      positions.put(ids[game], game);
+      // Names already in lower case share the instance
+      normalizedNames[game] = normalize(names[game]);
+      similarityGrams[game] = similarityGrams(normalizedNames[game]);
+      final String name = normalizedNames[game];
+      for (int i = 0; i + GRAM <= name.length(); i++) {
+        if (pairCount == pairs.length) {
+          pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+        }
+        pairs[pairCount++] = ((long) key(name, i) << 32) | game;
+      }
+    }
+    Arrays.sort(pairs, 0, pairCount);
+
+    final int[] keys = new int[pairCount];
+    final int[] offsets = new int[pairCount + 1];
+    final int[] postings = new int[pairCount];
+    int keyCount = 0;
+    int postingCount = 0;
+    for (int i = 0; i < pairCount; i++) {
+      if (i > 0 && pairs[i] == pairs[i - 1]) {
+        continue;
+      }
+      final int key = (int) (pairs[i] >> 32);
+      if (keyCount == 0 || keys[keyCount - 1] != key) {
+        keys[keyCount] = key;
+        offsets[keyCount++] = postingCount;
+      }
+      postings[postingCount++] = (int) pairs[i];
+    }
+    offsets[keyCount] = postingCount;
+
+    return new GameSearchIndex(
+        ids,
+        names,
+        positions,
+        normalizedNames,
+        similarityGrams,
+        Arrays.copyOf(keys, keyCount),
+        Arrays.copyOf(offsets, keyCount + 1),
+        Arrays.copyOf(postings, postingCount));
+  }
+
+  /**
+   * @return the number of indexed games
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * @return the estimated heap held by the index in bytes
+   */
+  public long estimatedSize() {
+    return estimatedSize;
+  }
+
+  private long estimateSize() {
+    long bytes =
+        ARRAY_HEADER * 7
+            + (REFERENCE * 4L + UUID_SIZE) * ids.length
+            + POSITION_ENTRY * positions.size()
+            + 4L * (keys.length + offsets.length + postings.length);
+    for (int game = 0; game < ids.length; game++) {
+      bytes += sizeOf(names[game]);
+      if (normalizedNames[game] != names[game]) {
+        bytes += sizeOf(normalizedNames[game]);
+      }
+      bytes += ARRAY_HEADER + 8L * similarityGrams[game].length;
+    }
+    return bytes;
+  }
+
+  /**
+   * Find a slice of all games, in catalog order.
+   *
+   * @param pageable the page, its sort is ignored
+   * @return the ids of the games of the page
+   */
+  public Slice<UUID> findAll(final Pageable pageable) {
+    final int from = (int) Math.min(pageable.getOffset(), ids.length);
+    final int to = Math.min(from + pageable.getPageSize(), ids.length);
+    return new SliceImpl<>(Arrays.asList(ids).subList(from, to), pageable, to < ids.length);
+  }
+
+  /**
+   * Find a slice of the games after a cursor, in catalog order.
+   *
+   * @param cursor the last game seen
+   * @param pageable the first page of the size of the slice
+   * @return the ids of the games after the cursor, empty if the game of the cursor is not in the
+   *     index as it was seen
+   */
+  public Optional<Slice<UUID>> findAfter(final GameCursor cursor, final Pageable pageable) {
+    final Integer position = positions.get(cursor.id());
+    if (position == null || !names[position].equals(cursor.name())) {
+      return Optional.empty();
+    }
+    final int from = position + 1;
+    final int to = Math.min(from + pageable.getPageSize(), ids.length);
+    return Optional.of(
+        new SliceImpl<>(Arrays.asList(ids).subList(from, to), pageable, to < ids.length));
+  }
+
+  /**
+   * Find games whose name contains the term, ignoring case, the most similar names first.
+   *
+   * @param term the search term
+   * @param pageable the page, its sort is ignored
+   * @return the ids of the matching games of the page
+   */
+  public Slice<UUID> search(final String term, final Pageable pageable) {
+    final String needle = normalize(term);
+    final int[] matches = needle.length() < GRAM ? scan(needle) : lookup(needle);
+
+    // Similarity descending, then catalog order, packed into one primitive sort key
+    final long[] gramsOfNeedle = similarityGrams(needle);
+    final long[] ranked = new long[matches.length];
+    for (int i = 0; i < matches.length; i++) {
+      final float similarity = similarity(gramsOfNeedle, similarityGrams[matches[i]]);
+      ranked[i] =
+          ((long) (Integer.MAX_VALUE - Float.floatToIntBits(similarity)) << 32) | matches[i];
+    }
+    Arrays.sort(ranked);
+
+    final int from = (int) Math.min(pageable.getOffset(), ranked.length);
+    final int to = Math.min(from + pageable.getPageSize(), ranked.length);
+    final List<UUID> content = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      content.add(ids[(int) ranked[i]]);
+    }
+    return new SliceImpl<>(content, pageable, to < ranked.length);
+  }
+
+  private int[] scan(final String needle) {
+    final int[] matches = new int[normalizedNames.length];
+    int count = 0;
+    for (int game = 0; game < normalizedNames.length; game++) {
+      if (normalizedNames[game].contains(needle)) {
+        matches[count++] = game;
+      }
+    }
+    return Arrays.copyOf(matches, count);
+  }
+
+  private int[] lookup(final String needle) {
+    final int gramCount = needle.length() - GRAM + 1;
+    final int[] from = new int[gramCount];
+    final int[] to = new int[gramCount];
+    for (int i = 0; i < gramCount; i++) {
+      final int index = Arrays.binarySearch(keys, key(needle, i));
+      if (index < 0) {
+        return NO_MATCHES;
+      }
+      from[i] = offsets[index];
+      to[i] = offsets[index + 1];
+    }
+
+    // Start from the shortest postings, the others only filter them
+    int shortest = 0;
+    for (int i = 1; i < gramCount; i++) {
+      if (to[i] - from[i] < to[shortest] - from[shortest]) {
+        shortest = i;
+      }
+    }
+    final int[] matches = new int[to[shortest] - from[shortest]];
+    int count = 0;
+    candidates:
+    for (int p = from[shortest]; p < to[shortest]; p++) {
+      final int game = postings[p];
+      for (int i = 0; i < gramCount; i++) {
+        if (i != shortest && Arrays.binarySearch(postings, from[i], to[i], game) < 0) {
+          continue candidates;
+        }
+      }
+      if (normalizedNames[game].contains(needle)) {
+        matches[count++] = game;
+      }
+    }
+    return Arrays.copyOf(matches, count);
+  }
+
+  private static String normalize(final String value) {
+    return value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static int key(final String value, final int at) {
+    // Exact for characters below U+0400, colliding keys are filtered by the substring check
+    return (value.charAt(at) << 20) ^ (value.charAt(at + 1) << 10) ^ value.charAt(at + 2);
+  }
+
+  /**
+   * Trigrams as pg_trgm builds them: each word of letters and digits padded with two spaces in
+   * front and one behind.
+   */
+  private static long[] similarityGrams(final String value) {
+    final List<Long> grams = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= value.length(); i++) {
+      final boolean inWord = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+      if (inWord && start < 0) {
+        start = i;
+      } else if (!inWord && start >= 0) {
+        final String word = "  " + value.substring(start, i) + " ";
+        for (int j = 0; j + GRAM <= word.length(); j++) {
+          grams.add(
+              ((long) word.charAt(j) << 32)
+                  | ((long) word.charAt(j + 1) << 16)
+                  | word.charAt(j + 2));
+        }
+        start = -1;
+      }
+    }
+    return grams.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+  }
+
+  private static float similarity(final long[] a, final long[] b) {
+    int shared = 0;
+    for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+      if (a[i] == b[j]) {
+        shared++;
+        i++;
+        j++;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    final int union = a.length + b.length - shared;
+    return union == 0 ? 0 : (float) shared / union;
+  }
+
+  private static long sizeOf(final String value) {
+    return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+  }
+}
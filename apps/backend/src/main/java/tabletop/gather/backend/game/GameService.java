@@ -2,19 +2,28 @@ package tabletop.gather.backend.game;
 
 import jakarta.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import tabletop.gather.backend.gathering.DateTimeGatheringDto;
-import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringAttendance;
 import tabletop.gather.backend.gathering.GatheringRepository;
 import tabletop.gather.backend.plan.PlanRepository;
 import tabletop.gather.backend.user.User;
 import tabletop.gather.backend.user.UserRepository;
+import tabletop.gather.backend.util.EntityVersion;
 import tabletop.gather.backend.util.NotFoundException;
 
 @Service
@@ -25,31 +34,85 @@ public class GameService {
   private final UserRepository userRepository;
   private final GatheringRepository gatheringRepository;
   private final PlanRepository planRepository;
+  private final GameCatalog gameCatalog;
 
   public GameService(
       final GameRepository gameRepository,
       final UserRepository userRepository,
       final GatheringRepository gatheringRepository,
-      PlanRepository planRepository) {
+      PlanRepository planRepository,
+      final GameCatalog gameCatalog) {
     this.gameRepository = gameRepository;
     this.userRepository = userRepository;
     this.gatheringRepository = gatheringRepository;
     this.planRepository = planRepository;
+    this.gameCatalog = gameCatalog;
   }
 
   /**
-   * Find all games containing the name.
+   * Find all games containing the name, the most similar names first. Without name, all games are
+   * returned by name. Ranked by the in-memory index of the catalog, only the games of the page are
+   * loaded, unless the catalog is too large to be indexed.
    *
-   * @param name
-   * @param pageable
-   * @return all games with given params
+   * @param name the search term, may be empty
+   * @param pageable the page, its sort is ignored
+   * @return the games of the page
    */
-  public Page<GameDto> findByName(String name, Pageable pageable) {
-    Page<Game> gamesPage = gameRepository.findByNameContainingIgnoreCase(name, pageable);
-    List<GameDto> gameDtos =
-        gamesPage.getContent().stream().map(game -> mapToDto(game, new GameDto())).toList();
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public Slice<GameDto> findByName(String name, Pageable pageable) {
+    final Optional<GameSearchIndex> index = gameCatalog.getSearchIndex();
+    final Slice<GameProjection> games;
+    if (index.isPresent()) {
+      games =
+          load(
+              name == null || name.isBlank()
+                  ? index.get().findAll(pageable)
+                  : index.get().search(name, pageable));
+    } else if (name == null || name.isBlank()) {
+      games =
+          gameRepository.findProjectedBy(
+              PageRequest.of(
+                  pageable.getPageNumber(), pageable.getPageSize(), Sort.by("name", "id")));
+    } else {
+      final String term = name.trim();
+      games =
+          gameRepository.searchByName(
+              "%" + escapeLike(term) + "%",
+              term,
+              PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+    return games.map(game -> mapToDto(game, new GameDto()));
+  }
 
-    return new PageImpl<>(gameDtos, pageable, gamesPage.getTotalElements());
+  /**
+   * Find the games after a cursor, in the order by name and id. Deep slices cost no more than the
+   * first one, and no count is run. Positioned by the in-memory index when possible.
+   *
+   * @param cursor the token of the last game seen, empty for the first slice
+   * @param size the number of games per slice
+   * @return the games after the cursor
+   */
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public Slice<GameDto> findAfter(final String cursor, final int size) {
+    final Pageable pageable = PageRequest.of(0, size);
+    final Optional<GameSearchIndex> index = gameCatalog.getSearchIndex();
+    final Slice<GameProjection> games;
+    if (cursor.isBlank()) {
+      games =
+          index.isPresent()
+              ? load(index.get().findAll(pageable))
+              : gameRepository.findProjectedBy(PageRequest.of(0, size, Sort.by("name", "id")));
+    } else {
+      final GameCursor position = GameCursor.decode(cursor);
+      games =
+          index
+              .flatMap(gameIndex -> gameIndex.findAfter(position, pageable))
+              .map(this::load)
+              .orElseGet(
+                  () ->
+                      gameRepository.findProjectedAfter(position.name(), position.id(), pageable));
+    }
+    return games.map(game -> mapToDto(game, new GameDto()));
   }
 
   /**
@@ -60,7 +123,8 @@ public class GameService {
    */
   public List<GameDto> findByUserId(final UUID userId) {
     userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
-    final List<Game> games = gameRepository.findByUsers_Id(userId, Sort.by("name"));
+    final List<GameProjection> games =
+        gameRepository.findProjectedByUsers_Id(userId, Sort.by("name"));
     return games.stream().map(game -> mapToDto(game, new GameDto())).toList();
   }
 
@@ -78,24 +142,74 @@ public class GameService {
   }
 
   /**
-   * Get all games of attending users on a plan per gathering.
+   * Get the version of a game.
+   *
+   * @param id the id of the game
+   * @return the version, empty if the game does not exist
+   */
+  public Optional<EntityVersion> getVersion(final UUID id) {
+    return gameRepository.findVersionById(id);
+  }
+
+  /**
+   * Get all games of attending users on a plan per gathering. The attendance of the plan and the
+   * collections of its attendees are loaded once. Attendees are numbered, the attendees of a
+   * gathering and the owners of a game are kept as bitsets, so matching a game against a gathering
+   * is an AND over a few words.
    *
    * @param id the id of the plan
    * @return all games attending on the plan
    */
   public List<GamePlanDto> findByAttendingOnPlan(final UUID id) {
-    List<GamePlanDto> gamePlanDtos = new ArrayList<>();
-    planRepository.findById(id).orElseThrow(() -> new NotFoundException("Plan not found"));
-    final List<Gathering> gatherings = gatheringRepository.findAllByPlanId(id, Sort.by("date"));
-    for (Gathering gathering : gatherings) {
-      List<User> attendees = new ArrayList<>(gathering.getUsers());
-      List<Game> games = new ArrayList<>(gameRepository.findByUsersGatheringsPlanId(id));
-      games.removeIf(
-          game -> game.getMinPlayer() > attendees.size() || game.getMaxPlayer() < attendees.size());
-      games.removeIf(game -> game.getUsers().stream().noneMatch(attendees::contains));
-      final List<GameOwnersDto> gameDtos =
-          games.stream().map(game -> mapToDto(game, attendees, new GameOwnersDto())).toList();
-      gamePlanDtos.add(mapToDto(gameDtos, gathering, new GamePlanDto()));
+    if (!planRepository.existsById(id)) {
+      throw new NotFoundException("Plan not found");
+    }
+
+    final Map<UUID, Integer> attendeeIndexes = new HashMap<>();
+    final Map<UUID, AttendedGathering> gatherings = new LinkedHashMap<>();
+    for (GatheringAttendance attendance : gatheringRepository.findAttendanceByPlanId(id)) {
+      final AttendedGathering gathering =
+          gatherings.computeIfAbsent(
+              attendance.gatheringId(), gatheringId -> new AttendedGathering(attendance));
+      if (attendance.userId() != null) {
+        gathering.attendees.set(
+            attendeeIndexes.computeIfAbsent(attendance.userId(), userId -> attendeeIndexes.size()));
+      }
+    }
+    final int[] playerCounts =
+        gatherings.values().stream()
+            .mapToInt(gathering -> gathering.attendees.cardinality())
+            .sorted()
+            .distinct()
+            .toArray();
+
+    // Games no gathering has the players for are skipped before any lookup. The two queries are
+    // not one snapshot, owners who left a gathering in between have no index and are skipped too.
+    final String[] attendeeNames = new String[attendeeIndexes.size()];
+    final Map<UUID, OwnedGame> games = new LinkedHashMap<>();
+    for (GameOwnership ownership : gameRepository.findOwnershipsByPlanId(id)) {
+      final Integer attendee = attendeeIndexes.get(ownership.ownerId());
+      if (attendee != null && fitsAny(ownership, playerCounts)) {
+        attendeeNames[attendee] = ownership.ownerName();
+        games
+            .computeIfAbsent(ownership.id(), gameId -> new OwnedGame(ownership))
+            .owners
+            .set(attendee);
+      }
+    }
+
+    final List<GamePlanDto> gamePlanDtos = new ArrayList<>(gatherings.size());
+    for (AttendedGathering gathering : gatherings.values()) {
+      final int playerCount = gathering.attendees.cardinality();
+      final List<GameOwnersDto> gameDtos = new ArrayList<>();
+      for (OwnedGame game : games.values()) {
+        if (fits(game.game, playerCount) && game.owners.intersects(gathering.attendees)) {
+          final BitSet owners = (BitSet) game.owners.clone();
+          owners.and(gathering.attendees);
+          gameDtos.add(mapToDto(game.game, owners, attendeeNames, new GameOwnersDto()));
+        }
+      }
+      gamePlanDtos.add(mapToDto(gameDtos, gathering.attendance, new GamePlanDto()));
     }
     return gamePlanDtos;
   }
@@ -133,6 +247,25 @@ public class GameService {
     gameRepository.save(game);
   }
 
+  /** Loads the games of a slice found in the search index, keeping the order of the index. */
+  private Slice<GameProjection> load(final Slice<UUID> ids) {
+    final Map<UUID, GameProjection> games = new HashMap<>();
+    if (ids.hasContent()) {
+      gameRepository
+          .findProjectedByIdIn(ids.getContent())
+          .forEach(game -> games.put(game.id(), game));
+    }
+    // Games deleted since the index was built are left out
+    return new SliceImpl<>(
+        ids.getContent().stream().map(games::get).filter(Objects::nonNull).toList(),
+        ids.getPageable(),
+        ids.hasNext());
+  }
+
+  private String escapeLike(final String term) {
+    return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
   private GameDto mapToDto(final Game game, final GameDto gameDto) {
     gameDto.setId(game.getId());
     gameDto.setName(game.getName());
@@ -143,26 +276,71 @@ public class GameService {
     return gameDto;
   }
 
+  private GameDto mapToDto(final GameProjection game, final GameDto gameDto) {
+    gameDto.setId(game.id());
+    gameDto.setName(game.name());
+    gameDto.setDescription(game.description());
+    gameDto.setMinPlayer(game.minPlayer());
+    gameDto.setMaxPlayer(game.maxPlayer());
+    gameDto.setImageUrl(game.imageUrl());
+    return gameDto;
+  }
+
+  private static boolean fits(final GameOwnership game, final int players) {
+    return game.minPlayer() <= players && (game.maxPlayer() == null || game.maxPlayer() >= players);
+  }
+
+  private static boolean fitsAny(final GameOwnership game, final int[] sortedPlayerCounts) {
+    final int from = Arrays.binarySearch(sortedPlayerCounts, game.minPlayer());
+    final int index = from >= 0 ? from : -from - 1;
+    return index < sortedPlayerCounts.length && fits(game, sortedPlayerCounts[index]);
+  }
+
   private GameOwnersDto mapToDto(
-      final Game game, List<User> attendees, GameOwnersDto gameOwnersDto) {
-    gameOwnersDto = (GameOwnersDto) mapToDto(game, gameOwnersDto);
-    List<User> owners = game.getUsers().stream().filter(attendees::contains).toList();
+      final GameOwnership game,
+      final BitSet owners,
+      final String[] attendeeNames,
+      final GameOwnersDto gameOwnersDto) {
+    gameOwnersDto.setId(game.id());
+    gameOwnersDto.setName(game.name());
+    gameOwnersDto.setDescription(game.description());
+    gameOwnersDto.setMinPlayer(game.minPlayer());
+    gameOwnersDto.setMaxPlayer(game.maxPlayer());
+    gameOwnersDto.setImageUrl(game.imageUrl());
     gameOwnersDto.setOwners(
-        owners.stream()
-            .map(user -> String.format("%s %s", user.getFirstName(), user.getLastName()))
-            .toList());
+        owners.stream().mapToObj(owner -> attendeeNames[owner]).sorted().toList());
     return gameOwnersDto;
   }
 
   private GamePlanDto mapToDto(
       final List<GameOwnersDto> gameOwnerDtos,
-      final Gathering gathering,
+      final GatheringAttendance gathering,
       final GamePlanDto gamePlanDto) {
     DateTimeGatheringDto gatheringDto = new DateTimeGatheringDto();
-    gatheringDto.setDate(gathering.getDate());
-    gatheringDto.setStartTime(gathering.getStartTime());
+    gatheringDto.setDate(gathering.date());
+    gatheringDto.setStartTime(gathering.startTime());
     gamePlanDto.setGatheringDto(gatheringDto);
     gamePlanDto.setGames(gameOwnerDtos);
     return gamePlanDto;
   }
+
+  /** A game with its owners among the attendees of the plan, numbered as the attendees. */
+  private static final class OwnedGame {
+    private final GameOwnership game;
+    private final BitSet owners = new BitSet();
+
+    private OwnedGame(final GameOwnership game) {
+      this.game = game;
+    }
+  }
+
+  /** A gathering with its attendees. */
+  private static final class AttendedGathering {
+    private final GatheringAttendance attendance;
+    private final BitSet attendees = new BitSet();
+
+    private AttendedGathering(final GatheringAttendance attendance) {
+      this.attendance = attendance;
+    }
+  }
 }
@@ -0,0 +1,12 @@
+package tabletop.gather.backend.gathering;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * A user attending a gathering, read from the gathering_users join table. Gatherings without
+ * attendees appear once, without user.
+ */
+public record GatheringAttendance(
+    UUID gatheringId, LocalDate date, LocalTime startTime, UUID userId) {}
@@ -0,0 +1,6 @@
+package tabletop.gather.backend.gathering;
+
+import java.util.UUID;
+
+/** Number of users attending a gathering, counted on the gathering_users join table. */
+public record GatheringParticipantCount(UUID gatheringId, Long participantCount) {}
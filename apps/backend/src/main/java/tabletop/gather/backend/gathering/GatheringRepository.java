@@ -1,9 +1,11 @@
 package tabletop.gather.backend.gathering;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import tabletop.gather.backend.guest.Guest;
 import tabletop.gather.backend.user.User;
 
@@ -16,4 +18,55 @@ public interface GatheringRepository extends JpaRepository<Gathering, UUID> {
   List<Gathering> findAllByPlanId(UUID planId, Sort sort);
 
   List<Gathering> findAllByUsers_Id(UUID userId);
+
+  /**
+   * Find the ids of all gatherings a user attends, starting from the gathering_users join table.
+   *
+   * @param userId the id of the attending user
+   * @return the ids of the attended gatherings
+   */
+  @Query("select g.id from Gathering g join g.users u where u.id = :userId")
+  Set<UUID> findIdsAttendedBy(UUID userId);
+
+  /**
+   * Find the ids of all plans with at least one gathering the user attends.
+   *
+   * @param userId the id of the attending user
+   * @return the ids of the plans
+   */
+  @Query("select distinct g.plan.id from Gathering g join g.users u where u.id = :userId")
+  List<UUID> findPlanIdsAttendedBy(UUID userId);
+
+  /**
+   * Count the attending users of every gathering of a plan. Gatherings without attendees are
+   * omitted.
+   *
+   * @param planId the id of the plan
+   * @return the participant count per gathering
+   */
+  @Query(
+      """
+      select new tabletop.gather.backend.gathering.GatheringParticipantCount(g.id, count(u.id))
+      from Gathering g join g.users u
+      where g.plan.id = :planId
+      group by g.id
+      """)
+  List<GatheringParticipantCount> countParticipantsByPlanId(UUID planId);
+
+  /**
+   * Find the attending users of every gathering of a plan, ordered by date.
+   *
+   * @param planId the id of the plan
+   * @return one row per attending user and gathering, one row without user for gatherings nobody
+   *     attends
+   */
+  @Query(
+      """
+      select new tabletop.gather.backend.gathering.GatheringAttendance(
+        g.id, g.date, g.startTime, u.id)
+      from Gathering g left join g.users u
+      where g.plan.id = :planId
+      order by g.date, g.id
+      """)
+  List<GatheringAttendance> findAttendanceByPlanId(UUID planId);
 }
@@ -8,7 +8,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.config.AuthenticatedUser;
+import tabletop.gather.backend.user.UserDto;
 
 @RestController
 @RequestMapping(value = "/api/gatherings", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -16,26 +17,23 @@ public class GatheringResource {
 
   private final GatheringService gatheringService;
 
-  private final JwtService jwtService;
-
-  public GatheringResource(final GatheringService gatheringService, final JwtService jwtService) {
+  public GatheringResource(final GatheringService gatheringService) {
     this.gatheringService = gatheringService;
-    this.jwtService = jwtService;
   }
 
   /**
    * Set the user's attendance for gatherings
    *
-   * @param token the token of the authenticated user
+   * @param user the authenticated user
    * @param upsertGatheringDtos the gatherings attendance status
    * @return 201 if successful
    */
   @PostMapping("/attend")
   @ApiResponse(responseCode = "201")
   public ResponseEntity<UUID> attendGathering(
-      @RequestHeader("Authorization") final String token,
+      @AuthenticatedUser final UserDto user,
       @RequestBody @Valid final List<UpsertGatheringDto> upsertGatheringDtos) {
-    final UUID userId = jwtService.getUserByToken(token).getId();
+    final UUID userId = user.getId();
     gatheringService.removeAndAdd(upsertGatheringDtos, userId);
     return new ResponseEntity<>(HttpStatus.CREATED);
   }
@@ -1,11 +1,15 @@
 package tabletop.gather.backend.gathering;
 
 import jakarta.transaction.Transactional;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 import tabletop.gather.backend.guest.GuestRepository;
 import tabletop.gather.backend.plan.PlanRepository;
+import tabletop.gather.backend.plan.PlanSummaryService;
 import tabletop.gather.backend.user.User;
 import tabletop.gather.backend.user.UserRepository;
 import tabletop.gather.backend.util.NotFoundException;
@@ -18,16 +22,19 @@ public class GatheringService {
   private final PlanRepository planRepository;
   private final GuestRepository guestRepository;
   private final UserRepository userRepository;
+  private final PlanSummaryService planSummaryService;
 
   public GatheringService(
       final GatheringRepository gatheringRepository,
       final PlanRepository planRepository,
       final GuestRepository guestRepository,
-      final UserRepository userRepository) {
+      final UserRepository userRepository,
+      final PlanSummaryService planSummaryService) {
     this.gatheringRepository = gatheringRepository;
     this.planRepository = planRepository;
     this.guestRepository = guestRepository;
     this.userRepository = userRepository;
+    this.planSummaryService = planSummaryService;
   }
 
   /**
@@ -39,6 +46,7 @@ public class GatheringService {
   public void removeAndAdd(final List<UpsertGatheringDto> upsertGatheringDtos, UUID userId) {
     final User user =
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("user not found"));
+    final Set<UUID> changedPlanIds = new HashSet<>();
     gatheringRepository.findAllByUsers_Id(userId).stream()
         .filter(
             gathering ->
@@ -49,7 +57,9 @@ public class GatheringService {
             gathering -> {
               gathering.getUsers().remove(user);
               user.getGatherings().remove(gathering);
+              touch(gathering);
               gatheringRepository.save(gathering);
+              changedPlanIds.add(gathering.getPlan().getId());
             });
 
     upsertGatheringDtos.stream()
@@ -62,7 +72,19 @@ public class GatheringService {
                       .orElseThrow(() -> new NotFoundException("gathering not found"));
               gathering.getUsers().add(user);
               user.getGatherings().add(gathering);
+              touch(gathering);
               gatheringRepository.save(gathering);
+              changedPlanIds.add(gathering.getPlan().getId());
             });
+
+    planSummaryService.refresh(changedPlanIds);
+  }
+
+  /**
+   * Attendances live in the join table and do not make the gathering itself dirty. Touching it
+   * advances its lastUpdated, which versions the views of its plan.
+   */
+  private void touch(final Gathering gathering) {
+    gathering.setLastUpdated(OffsetDateTime.now());
   }
 }
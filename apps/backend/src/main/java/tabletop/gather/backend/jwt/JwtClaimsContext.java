@@ -0,0 +1,49 @@
+package tabletop.gather.backend.jwt;
+
+import io.jsonwebtoken.Claims;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Keeps the verified claims of the bearer token of the current request, so that the filter, the
+ * services and the resources share a single parse. Outside of a request nothing is kept.
+ */
+@Component
+public class JwtClaimsContext {
+  private static final String ATTRIBUTE = JwtClaimsContext.class.getName() + ".claims";
+
+  private record VerifiedToken(String token, Claims claims) {}
+
+  /**
+   * Find the claims of the given token, if it has been verified during the current request.
+   *
+   * @param token the compact token, without "Bearer " prefix
+   * @return the verified claims
+   */
+  public Optional<Claims> find(final String token) {
+    final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null
+        && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+            instanceof VerifiedToken verified
+        && verified.token().equals(token)) {
+      return Optional.of(verified.claims());
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Keep the verified claims of a token for the rest of the current request.
+   *
+   * @param token the compact token, without "Bearer " prefix
+   * @param claims the verified claims
+   */
+  public void store(final String token, final Claims claims) {
+    final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null) {
+      attributes.setAttribute(
+          ATTRIBUTE, new VerifiedToken(token, claims), RequestAttributes.SCOPE_REQUEST);
+    }
+  }
+}
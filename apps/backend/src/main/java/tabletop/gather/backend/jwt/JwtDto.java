@@ -10,4 +10,6 @@ public class JwtDto {
   private String token;
 
   private long expiresIn;
+
+  private String refreshToken;
 }
@@ -0,0 +1,201 @@
+package tabletop.gather.backend.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.crypto.SecretKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keys used to sign and verify tokens. The keyring is a directory of PEM files, {@code
+ * <kid>.public.pem} (X.509) to verify and {@code <kid>.private.pem} (PKCS#8) to sign, with EC
+ * (ES256, ES384, ES512) or RSA keys. Tokens signed with a key from the keyring carry its kid,
+ * verification looks the kid up in memory. Nodes that only verify need no private key.
+ *
+ * <p>Keys are rotated by adding the new public key to every node, then switching {@code
+ * security.jwt.signing-key-id}; the old public key stays until the last token signed with it
+ * expired. The keyring is reloaded periodically, so verifying nodes pick up new keys without a
+ * restart.
+ *
+ * <p>Without keyring, or for tokens without kid, the HS256 {@code security.jwt.secret-key} is used.
+ */
+@Component
+public class JwtKeyring extends SigningKeyResolverAdapter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(JwtKeyring.class);
+
+  private static final String PUBLIC_KEY_SUFFIX = ".public.pem";
+  private static final String PRIVATE_KEY_SUFFIX = ".private.pem";
+  private static final String[] KEY_ALGORITHMS = {"EC", "RSA"};
+
+  /**
+   * A key to sign tokens with.
+   *
+   * @param keyId the kid written to the token header, null for the HS256 secret
+   * @param key the private or secret key
+   * @param algorithm the algorithm matching the key
+   */
+  public record SigningKey(String keyId, Key key, SignatureAlgorithm algorithm) {}
+
+  private final SecretKey secretKey;
+  private final Path keyringPath;
+  private final String signingKeyId;
+
+  private volatile Map<String, PublicKey> verificationKeys = Map.of();
+  private volatile SigningKey signingKey;
+
+  public JwtKeyring(
+      @Value("${security.jwt.secret-key:}") final String secretKey,
+      @Value("${security.jwt.keyring:}") final String keyringPath,
+      @Value("${security.jwt.signing-key-id:}") final String signingKeyId) {
+    this.secretKey =
+        secretKey.isBlank() ? null : Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    this.keyringPath = keyringPath.isBlank() ? null : Path.of(keyringPath);
+    this.signingKeyId = signingKeyId.isBlank() ? null : signingKeyId;
+    if (this.secretKey == null && this.keyringPath == null) {
+      throw new IllegalStateException(
+          "either security.jwt.secret-key or security.jwt.keyring has to be set");
+    }
+    load();
+  }
+
+  /**
+   * The key new tokens are signed with.
+   *
+   * @return the signing key
+   * @throws IllegalStateException if this node holds no signing key
+   */
+  public SigningKey getSigningKey() {
+    if (signingKey == null) {
+      throw new IllegalStateException("no signing key configured");
+    }
+    return signingKey;
+  }
+
+  /**
+   * Find the key to verify a token with.
+   *
+   * @param keyId the kid of the token, null for tokens signed with the HS256 secret
+   * @return the key to verify the signature with
+   * @throws UnsupportedJwtException if the key is not known
+   */
+  public Key getVerificationKey(final String keyId) {
+    final Key key = keyId == null ? secretKey : verificationKeys.get(keyId);
+    if (key == null) {
+      throw new UnsupportedJwtException("unknown signing key");
+    }
+    return key;
+  }
+
+  @Override
+  public Key resolveSigningKey(final JwsHeader header, final Claims claims) {
+    return getVerificationKey(header.getKeyId());
+  }
+
+  /** Reloads the keyring, keeping the current keys if it cannot be read. */
+  @Scheduled(
+      fixedDelayString = "${security.jwt.keyring-reload-interval:60000}",
+      initialDelayString = "${security.jwt.keyring-reload-interval:60000}")
+  public void reload() {
+    if (keyringPath == null) {
+      return;
+    }
+    try {
+      load();
+    } catch (RuntimeException exception) {
+      LOGGER.error("Could not reload the JWT keyring, keeping the current keys", exception);
+    }
+  }
+
+  private void load() {
+    if (keyringPath == null) {
+      signingKey = new SigningKey(null, secretKey, SignatureAlgorithm.HS256);
+      return;
+    }
+
+    final Map<String, PublicKey> publicKeys =
+        readKeys(PUBLIC_KEY_SUFFIX, X509EncodedKeySpec::new, KeyFactory::generatePublic);
+    SigningKey nextSigningKey =
+        secretKey == null ? null : new SigningKey(null, secretKey, SignatureAlgorithm.HS256);
+    if (signingKeyId != null) {
+      final PrivateKey privateKey =
+          readKeys(PRIVATE_KEY_SUFFIX, PKCS8EncodedKeySpec::new, KeyFactory::generatePrivate)
+              .get(signingKeyId);
+      if (privateKey == null || !publicKeys.containsKey(signingKeyId)) {
+        throw new IllegalStateException(
+            "keyring lacks the private or public key of signing key " + signingKeyId);
+      }
+      nextSigningKey =
+          new SigningKey(signingKeyId, privateKey, SignatureAlgorithm.forSigningKey(privateKey));
+    }
+
+    verificationKeys = Map.copyOf(publicKeys);
+    signingKey = nextSigningKey;
+  }
+
+  private <T extends Key> Map<String, T> readKeys(
+      final String suffix,
+      final Function<byte[], KeySpec> keySpec,
+      final KeyGenerator<T> keyGenerator) {
+    final Map<String, T> keys = new HashMap<>();
+    try (Stream<Path> files = Files.list(keyringPath)) {
+      for (Path file : files.filter(f -> f.getFileName().toString().endsWith(suffix)).toList()) {
+        final String fileName = file.getFileName().toString();
+        final String keyId = fileName.substring(0, fileName.length() - suffix.length());
+        keys.put(keyId, readKey(file, keySpec, keyGenerator));
+      }
+    } catch (IOException exception) {
+      throw new IllegalStateException("could not read keyring " + keyringPath, exception);
+    }
+    return keys;
+  }
+
+  private <T extends Key> T readKey(
+      final Path file, final Function<byte[], KeySpec> keySpec, final KeyGenerator<T> keyGenerator)
+      throws IOException {
+    final String pem =
+        Files.readString(file)
+            .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+            .replaceAll("\\s", "");
+    final KeySpec spec = keySpec.apply(Base64.getDecoder().decode(pem));
+    for (String algorithm : KEY_ALGORITHMS) {
+      try {
+        return keyGenerator.generate(KeyFactory.getInstance(algorithm), spec);
+      } catch (InvalidKeySpecException exception) {
+        // try the next algorithm
+      } catch (GeneralSecurityException exception) {
+        throw new IllegalStateException(exception);
+      }
+    }
+    throw new IllegalStateException("unsupported key in " + file);
+  }
+
+  @FunctionalInterface
+  private interface KeyGenerator<T extends Key> {
+    T generate(KeyFactory keyFactory, KeySpec spec) throws GeneralSecurityException;
+  }
+}
@@ -1,43 +1,58 @@
 package tabletop.gather.backend.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import tabletop.gather.backend.user.User;
 import tabletop.gather.backend.user.UserDto;
-import tabletop.gather.backend.user.UserService;
 
 @Service
 public class JwtService {
   private static final int AUTH_HEADER_BEARER_PREFIX_LENGTH = 7; // "Bearer, ".length() == 7
 
-  @Value("${security.jwt.secret-key}")
-  private String secretKey;
+  private static final String CLAIM_USER_ID = "uid";
+  private static final String CLAIM_EPOCH = "epoch";
+  private static final String CLAIM_USERNAME = "username";
+  private static final String CLAIM_FIRST_NAME = "firstName";
+  private static final String CLAIM_LAST_NAME = "lastName";
 
-  @Value("${security.jwt.expiration-time}")
-  private long jwtExpiration;
+  private static final byte[] EXPIRATION_KEY = "\"exp\":".getBytes(StandardCharsets.US_ASCII);
+  private static final int MAX_EXPIRATION_DIGITS = 15;
 
-  private final UserService userService;
+  private final long jwtExpiration;
+  private final JwtKeyring jwtKeyring;
+  private final JwtParser jwtParser;
 
-  public JwtService(final UserService userService) {
-    this.userService = userService;
+  private final JwtClaimsContext jwtClaimsContext;
+  private final TokenRevocationList tokenRevocationList;
+
+  public JwtService(
+      final JwtClaimsContext jwtClaimsContext,
+      final TokenRevocationList tokenRevocationList,
+      final JwtKeyring jwtKeyring,
+      @Value("${security.jwt.expiration-time}") final long jwtExpiration) {
+    this.jwtClaimsContext = jwtClaimsContext;
+    this.tokenRevocationList = tokenRevocationList;
+    this.jwtKeyring = jwtKeyring;
+    this.jwtExpiration = jwtExpiration;
+    this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(jwtKeyring).build();
   }
 
   public String extractUsername(String token) {
-    if (token.startsWith("Bearer ")) {
-      token = token.substring(AUTH_HEADER_BEARER_PREFIX_LENGTH);
-    }
-
     return extractClaim(token, Claims::getSubject);
   }
 
@@ -46,8 +61,23 @@ public class JwtService {
     return claimsResolver.apply(claims);
   }
 
+  /**
+   * Generate a token for the given user. Tokens for a {@link User} are self-contained: they carry
+   * the user id, profile and token epoch, so they can be authenticated without loading the user.
+   *
+   * @param userDetails the user to generate the token for
+   * @return the compact token
+   */
   public String generateToken(UserDetails userDetails) {
-    return generateToken(new HashMap<>(), userDetails);
+    Map<String, Object> claims = new HashMap<>();
+    if (userDetails instanceof User user && user.getId() != null) {
+      claims.put(CLAIM_USER_ID, user.getId().toString());
+      claims.put(CLAIM_EPOCH, user.getTokenEpoch());
+      claims.put(CLAIM_USERNAME, user.getNonUserDetailsUsername());
+      claims.put(CLAIM_FIRST_NAME, user.getFirstName());
+      claims.put(CLAIM_LAST_NAME, user.getLastName());
+    }
+    return generateToken(claims, userDetails);
   }
 
   public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -58,11 +88,6 @@ public class JwtService {
     return jwtExpiration;
   }
 
-  public UserDto getUserByToken(String token) {
-    String email = extractUsername(token);
-    return userService.getByEmail(email);
-  }
-
   public JwtDto getNewJwtToken(User user) {
     JwtDto jwtToken = new JwtDto();
     jwtToken.setToken(generateToken(user));
@@ -72,38 +97,203 @@ public class JwtService {
 
   private String buildToken(
       Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
-    return Jwts.builder()
+    final JwtKeyring.SigningKey signingKey = jwtKeyring.getSigningKey();
+    final JwtBuilder builder = Jwts.builder();
+    if (signingKey.keyId() != null) {
+      builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.keyId());
+    }
+    return builder
         .setClaims(extraClaims)
+        .setId(UUID.randomUUID().toString())
         .setSubject(userDetails.getUsername())
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+        .signWith(signingKey.key(), signingKey.algorithm())
         .compact();
   }
 
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    return isTokenValid(extractAllClaims(token), userDetails);
+  }
+
+  /**
+   * Check whether the claims carry the user id and token epoch of a self-contained token.
+   *
+   * @param claims the verified claims
+   * @return true if the user can be read from the claims
+   */
+  public boolean isSelfContained(Claims claims) {
+    return claims.get(CLAIM_USER_ID) != null && claims.get(CLAIM_EPOCH) != null;
   }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  /**
+   * Read the user from the claims of a self-contained token.
+   *
+   * @param claims the verified claims
+   * @return the user as Dto
+   */
+  public UserDto extractUser(Claims claims) {
+    UserDto user = new UserDto();
+    user.setId(UUID.fromString(claims.get(CLAIM_USER_ID, String.class)));
+    user.setUsername(claims.get(CLAIM_USERNAME, String.class));
+    user.setFirstName(claims.get(CLAIM_FIRST_NAME, String.class));
+    user.setLastName(claims.get(CLAIM_LAST_NAME, String.class));
+    user.setEmail(claims.getSubject());
+    return user;
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  /**
+   * Read the token epoch from the claims of a self-contained token.
+   *
+   * @param claims the verified claims
+   * @return the epoch the token was issued with
+   */
+  public long extractEpoch(Claims claims) {
+    return claims.get(CLAIM_EPOCH, Number.class).longValue();
   }
 
-  private Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSignInKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+  /**
+   * Check whether the token has been revoked before its expiry. Answered from memory, see {@link
+   * TokenRevocationList}.
+   *
+   * @param claims the verified claims
+   * @return true if the token must be rejected
+   */
+  public boolean isRevoked(Claims claims) {
+    return tokenRevocationList.isRevoked(claims.getId());
   }
 
-  private Key getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+  /**
+   * Revoke a token, so it is rejected for the rest of its lifetime. Tokens that are invalid or
+   * issued without id are ignored, they are rejected or replaced by their expiry anyway.
+   *
+   * @param token the token, with or without "Bearer " prefix
+   */
+  public void revoke(String token) {
+    final Claims claims;
+    try {
+      claims = extractAllClaims(token);
+    } catch (JwtException | IllegalArgumentException exception) {
+      return;
+    }
+    if (claims.getId() != null) {
+      tokenRevocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+    }
+  }
+
+  public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+    return claims.getSubject().equals(userDetails.getUsername())
+        && claims.getExpiration().after(new Date());
+  }
+
+  /**
+   * Cheap checks done before the token is verified. Tokens that are malformed, unsigned or expired
+   * are turned away without verifying the signature, and without the exceptions the parser would
+   * throw for them.
+   *
+   * @param token the token, with or without "Bearer " prefix
+   * @return the reason to reject the token, empty if it has to be verified
+   */
+  public Optional<TokenRejection> precheck(String token) {
+    if (token.startsWith("Bearer ")) {
+      token = token.substring(AUTH_HEADER_BEARER_PREFIX_LENGTH);
+    }
+
+    final int headerEnd = token.indexOf('.');
+    final int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+    if (headerEnd <= 0
+        || payloadEnd <= headerEnd + 1
+        || token.indexOf('.', payloadEnd + 1) >= 0
+        || !isBase64Url(token, 0, headerEnd)
+        || !isBase64Url(token, headerEnd + 1, payloadEnd)
+        || !isBase64Url(token, payloadEnd + 1, token.length())) {
+      return Optional.of(TokenRejection.MALFORMED);
+    }
+    if (payloadEnd == token.length() - 1) {
+      return Optional.of(TokenRejection.UNSIGNED);
+    }
+
+    final byte[] payload =
+        Base64.getUrlDecoder().decode(token.substring(headerEnd + 1, payloadEnd));
+    final long expiration = readExpiration(payload);
+    if (expiration >= 0 && expiration * 1000 < System.currentTimeMillis()) {
+      return Optional.of(TokenRejection.EXPIRED);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Verify a token and return its claims. A token is parsed at most once per request, later calls
+   * read the verified claims from the {@link JwtClaimsContext}.
+   *
+   * @param token the token, with or without "Bearer " prefix
+   * @return the verified claims
+   */
+  public Claims extractAllClaims(String token) {
+    if (token.startsWith("Bearer ")) {
+      token = token.substring(AUTH_HEADER_BEARER_PREFIX_LENGTH);
+    }
+
+    final String compactToken = token;
+    return jwtClaimsContext
+        .find(compactToken)
+        .orElseGet(
+            () -> {
+              final Claims claims = jwtParser.parseClaimsJws(compactToken).getBody();
+              jwtClaimsContext.store(compactToken, claims);
+              return claims;
+            });
+  }
+
+  /** Whether the segment only holds base64url characters, in a length that can be decoded. */
+  private static boolean isBase64Url(final String token, final int start, final int end) {
+    if ((end - start) % 4 == 1) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      final char c = token.charAt(i);
+      if (!((c >= 'A' && c <= 'Z')
+          || (c >= 'a' && c <= 'z')
+          || (c >= '0' && c <= '9')
+          || c == '-'
+          || c == '_')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Read the exp claim of an unverified payload, in seconds. Only a top level key directly after
+   * "{" or "," is considered, since quotes within string values are escaped.
+   *
+   * @return the expiration, -1 if it cannot be read cheaply
+   */
+  private static long readExpiration(final byte[] payload) {
+    for (int i = 1; i + EXPIRATION_KEY.length < payload.length; i++) {
+      if ((payload[i - 1] == '{' || payload[i - 1] == ',') && startsWithKey(payload, i)) {
+        long seconds = 0;
+        int digits = 0;
+        for (int j = i + EXPIRATION_KEY.length;
+            j < payload.length && payload[j] >= '0' && payload[j] <= '9';
+            j++) {
+          if (++digits > MAX_EXPIRATION_DIGITS) {
+            return -1;
+          }
+          seconds = seconds * 10 + (payload[j] - '0');
+        }
+        return digits == 0 ? -1 : seconds;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean startsWithKey(final byte[] payload, final int offset) {
+    for (int i = 0; i < EXPIRATION_KEY.length; i++) {
+      if (payload[offset + i] != EXPIRATION_KEY[i]) {
+        return false;
+      }
+    }
+    return true;
   }
 }
@@ -0,0 +1,22 @@
+package tabletop.gather.backend.jwt;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+/** The id of a token that is rejected before it expires. Kept until the token would expire. */
+@Entity
+@Table(name = "RevokedTokens")
+@Getter
+@Setter
+public class RevokedToken {
+
+  @Id
+  @Column(nullable = false, updatable = false)
+  private UUID jti;
+
+  @Column(nullable = false, updatable = false)
+  private OffsetDateTime expiresAt;
+}
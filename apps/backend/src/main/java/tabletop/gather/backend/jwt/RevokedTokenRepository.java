@@ -0,0 +1,29 @@
+package tabletop.gather.backend.jwt;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+  /**
+   * Find the revoked tokens that would still be accepted otherwise.
+   *
+   * @param now the current time
+   * @return the revoked tokens expiring after now
+   */
+  List<RevokedToken> findByExpiresAtAfter(OffsetDateTime now);
+
+  /**
+   * Delete the revoked tokens that expired anyway.
+   *
+   * @param now the current time
+   * @return the number of deleted tokens
+   */
+  @Modifying
+  @Query("delete from RevokedToken t where t.expiresAt <= :now")
+  int deleteExpired(OffsetDateTime now);
+}
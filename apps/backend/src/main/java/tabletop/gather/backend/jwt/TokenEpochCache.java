@@ -0,0 +1,64 @@
+package tabletop.gather.backend.jwt;
+
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import tabletop.gather.backend.config.CacheConfig;
+import tabletop.gather.backend.user.UserRepository;
+
+/**
+ * Keeps the current token epoch per user, so self-contained tokens can be checked without reading
+ * the users table. The database is only consulted on a miss, or when a token carries a newer epoch
+ * than the cached one (e.g. after a change on another instance).
+ */
+@Component
+public class TokenEpochCache {
+  private final Cache cache;
+  private final UserRepository userRepository;
+
+  public TokenEpochCache(final CacheManager cacheManager, final UserRepository userRepository) {
+    this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.TOKEN_EPOCHS));
+    this.userRepository = userRepository;
+  }
+
+  /**
+   * Checks whether a token issued with the given epoch is still accepted for the user.
+   *
+   * @param userId the id of the user
+   * @param epoch the epoch carried by the token
+   * @return true if the epoch is the current one of an existing user
+   */
+  public boolean isCurrent(final UUID userId, final long epoch) {
+    Long current = cache.get(userId, () -> load(userId));
+    if (current != null && epoch > current) {
+      current = load(userId);
+      cache.put(userId, current);
+    }
+    return current != null && current == epoch;
+  }
+
+  /**
+   * Records a new epoch of a user, rejecting tokens issued before.
+   *
+   * @param userId the id of the user
+   * @param epoch the new epoch
+   */
+  public void update(final UUID userId, final long epoch) {
+    cache.put(userId, epoch);
+  }
+
+  /**
+   * Forgets a user, e.g. after it was deleted.
+   *
+   * @param userId the id of the user
+   */
+  public void evict(final UUID userId) {
+    cache.evict(userId);
+  }
+
+  private Long load(final UUID userId) {
+    return userRepository.findTokenEpochById(userId).orElse(null);
+  }
+}
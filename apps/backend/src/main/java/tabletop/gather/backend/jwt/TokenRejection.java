@@ -0,0 +1,30 @@
+package tabletop.gather.backend.jwt;
+
+import java.util.Locale;
+
+/** Reasons a request is turned away with 401 instead of being authenticated. */
+public enum TokenRejection {
+  /** No bearer token was sent to a protected endpoint. */
+  MISSING,
+  /** The token is not three base64url encoded segments. */
+  MALFORMED,
+  /** The token carries no signature. */
+  UNSIGNED,
+  /** The token has expired. */
+  EXPIRED,
+  /** The signature or the claims could not be verified. */
+  INVALID,
+  /** The token has been revoked, see {@link TokenRevocationList}. */
+  REVOKED,
+  /** The token was issued before the user changed, or the user does not exist anymore. */
+  STALE;
+
+  /**
+   * The reason as used in metrics and the WWW-Authenticate header.
+   *
+   * @return the lower case name
+   */
+  public String getReason() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
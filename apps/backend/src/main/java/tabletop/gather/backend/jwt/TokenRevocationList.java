@@ -0,0 +1,95 @@
+package tabletop.gather.backend.jwt;
+
+import jakarta.transaction.Transactional;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tabletop.gather.backend.util.BloomFilter;
+
+/**
+ * Keeps the ids (jti) of revoked tokens in memory, so the check on every request does not read the
+ * database. A Bloom filter answers "not revoked" for almost all tokens, only its matches are looked
+ * up in the exact set. Revocations are persisted, and the list is synced periodically to drop
+ * expired ids and pick up revocations made on other instances.
+ */
+@Component
+public class TokenRevocationList implements InitializingBean {
+  private static final int EXPECTED_REVOCATIONS = 10_000;
+
+  private final RevokedTokenRepository revokedTokenRepository;
+
+  /** Expiry of every revoked token that has not expired yet, keyed by jti. */
+  private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+  private volatile BloomFilter filter = new BloomFilter(EXPECTED_REVOCATIONS);
+
+  public TokenRevocationList(final RevokedTokenRepository revokedTokenRepository) {
+    this.revokedTokenRepository = revokedTokenRepository;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    load(Instant.now());
+  }
+
+  /**
+   * Checks whether the token with the given id has been revoked.
+   *
+   * @param jti the id of the token, null for tokens issued without one
+   * @return true if the token must be rejected
+   */
+  public boolean isRevoked(final String jti) {
+    return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+  }
+
+  /**
+   * Revokes the token with the given id until it expires.
+   *
+   * @param jti the id of the token
+   * @param expiresAt the expiry of the token
+   */
+  public void revoke(final String jti, final Instant expiresAt) {
+    final RevokedToken revokedToken = new RevokedToken();
+    revokedToken.setJti(UUID.fromString(jti));
+    revokedToken.setExpiresAt(expiresAt.atOffset(ZoneOffset.UTC));
+    revokedTokenRepository.save(revokedToken);
+    add(jti, expiresAt);
+  }
+
+  /**
+   * Removes expired ids and loads the ones revoked on other instances, then rebuilds the filter.
+   */
+  @Scheduled(
+      fixedDelayString = "${security.jwt.revocation-sync-interval:60000}",
+      initialDelayString = "${security.jwt.revocation-sync-interval:60000}")
+  @Transactional
+  public void sync() {
+    final Instant now = Instant.now();
+    revokedTokenRepository.deleteExpired(now.atOffset(ZoneOffset.UTC));
+    revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    load(now);
+
+    final BloomFilter rebuilt = new BloomFilter(Math.max(EXPECTED_REVOCATIONS, 2 * revoked.size()));
+    revoked.keySet().forEach(rebuilt::put);
+    filter = rebuilt;
+    // Ids revoked while rebuilding may have been added to the old filter only
+    revoked.keySet().forEach(rebuilt::put);
+  }
+
+  private void load(final Instant now) {
+    revokedTokenRepository
+        .findByExpiresAtAfter(now.atOffset(ZoneOffset.UTC))
+        .forEach(token -> add(token.getJti().toString(), token.getExpiresAt().toInstant()));
+  }
+
+  private void add(final String jti, final Instant expiresAt) {
+    // The exact set first, a filter match must always find the id there
+    revoked.put(jti, expiresAt);
+    filter.put(jti);
+  }
+}
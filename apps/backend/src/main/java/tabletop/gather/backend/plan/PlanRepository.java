@@ -1,11 +1,61 @@
 package tabletop.gather.backend.plan;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import tabletop.gather.backend.util.EntityVersion;
 
 public interface PlanRepository extends JpaRepository<Plan, UUID> {
-  List<Plan> findAllByIsPrivateFalse();
 
-  List<Plan> findAllByUserId(UUID userId);
+  /**
+   * Find a plan with everything needed to build its {@link PlanSummary}, which backs the {@link
+   * OverviewPlanDto}.
+   *
+   * @param id the id of the plan
+   * @return the plan with owner, game and gatherings
+   */
+  @EntityGraph(attributePaths = {"user", "game", "gatherings"})
+  Optional<Plan> findOverviewById(UUID id);
+
+  /**
+   * Find a plan with everything needed to build a {@link DetailPlanDto}.
+   *
+   * @param id the id of the plan
+   * @return the plan with owner, game and gatherings
+   */
+  @EntityGraph(attributePaths = {"user", "game", "gatherings"})
+  Optional<Plan> findDetailById(UUID id);
+
+  /**
+   * Find the version of the rows a {@link DetailPlanDto} is built from: the plan, its owner, its
+   * game and its gatherings, counting attendances.
+   *
+   * @param id the id of the plan
+   * @return the version, empty if the plan does not exist
+   */
+  @Query(
+      """
+      select new tabletop.gather.backend.util.EntityVersion(
+        greatest(p.lastUpdated, o.lastUpdated, gm.lastUpdated, max(g.lastUpdated)), count(u))
+      from Plan p
+      left join p.user o
+      left join p.game gm
+      left join p.gatherings g
+      left join g.users u
+      where p.id = :id
+      group by p.id, o.id, gm.id
+      """)
+  Optional<EntityVersion> findDetailVersionById(UUID id);
+
+  /**
+   * Find the ids of all plans owned by the given user.
+   *
+   * @param userId the id of the owner
+   * @return the ids of the plans
+   */
+  @Query("select p.id from Plan p where p.user.id = :userId")
+  List<UUID> findIdsByUserId(UUID userId);
 }
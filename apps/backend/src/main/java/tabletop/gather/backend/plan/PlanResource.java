@@ -4,11 +4,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.config.AuthenticatedUser;
+import tabletop.gather.backend.user.UserDto;
+import tabletop.gather.backend.util.ConditionalResponse;
 
 @RestController
 @RequestMapping(value = "/api/plans", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -16,11 +22,8 @@ public class PlanResource {
 
   private final PlanService planService;
 
-  private final JwtService jwtService;
-
-  public PlanResource(final PlanService planService, final JwtService jwtService) {
+  public PlanResource(final PlanService planService) {
     this.planService = planService;
-    this.jwtService = jwtService;
   }
 
   /**
@@ -29,34 +32,50 @@ public class PlanResource {
    * @return all plans
    */
   @GetMapping
-  public ResponseEntity<List<OverviewPlanDto>> getAllPlans(
-      @RequestHeader("Authorization") final String token) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+  public ResponseEntity<List<OverviewPlanDto>> getAllPlans(@AuthenticatedUser final UserDto user) {
+    UUID userId = user.getId();
     return ResponseEntity.ok(planService.findAllExceptUser(userId));
   }
 
+  /**
+   * Get a page of public plans
+   *
+   * @param user the authenticated user
+   * @param page the page number
+   * @param pageSize the page size
+   * @return a page of plans
+   */
+  @GetMapping("/paged")
+  public ResponseEntity<Page<OverviewPlanDto>> getAllPlansPaged(
+      @AuthenticatedUser final UserDto user,
+      @RequestParam(name = "page", defaultValue = "0") int page,
+      @RequestParam(name = "pageSize", defaultValue = "20") int pageSize) {
+    UUID userId = user.getId();
+    Pageable pageable = PageRequest.of(page, pageSize);
+    return ResponseEntity.ok(planService.findAllExceptUser(userId, pageable));
+  }
+
   /**
    * Get all my plans
    *
    * @return all plans
    */
   @GetMapping("/me")
-  public ResponseEntity<List<OverviewPlanDto>> getMyPlans(
-      @RequestHeader("Authorization") final String token) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+  public ResponseEntity<List<OverviewPlanDto>> getMyPlans(@AuthenticatedUser final UserDto user) {
+    UUID userId = user.getId();
     return ResponseEntity.ok(planService.findAll(userId));
   }
 
   /**
    * Get all plans a user is attending
    *
-   * @param token the token of the authenticated user
+   * @param user the authenticated user
    * @return all plans filtered by user and attending
    */
   @GetMapping("/attending")
   public ResponseEntity<List<OverviewPlanDto>> getAttendingPlans(
-      @RequestHeader("Authorization") final String token) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+      @AuthenticatedUser final UserDto user) {
+    UUID userId = user.getId();
     return ResponseEntity.ok(planService.findAllAttending(userId));
   }
 
@@ -67,23 +86,25 @@ public class PlanResource {
    * @return the plan
    */
   @GetMapping("/{id}")
-  public ResponseEntity<DetailPlanDto> getPlan(@PathVariable(name = "id") final UUID id) {
-    return ResponseEntity.ok(planService.getDetail(id));
+  public ResponseEntity<DetailPlanDto> getPlan(
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+      @PathVariable(name = "id") final UUID id) {
+    return ConditionalResponse.of(
+        ifNoneMatch, planService.getDetailVersion(id), () -> planService.getDetail(id));
   }
 
   /**
    * Create a plan
    *
-   * @param token the jwt token
+   * @param user the authenticated user
    * @param planDto the plan to create
    * @return the id of the created plan
    */
   @PostMapping
   @ApiResponse(responseCode = "201")
   public ResponseEntity<UUID> createPlan(
-      @RequestHeader("Authorization") final String token,
-      @RequestBody @Valid final CreatePlanDto planDto) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+      @AuthenticatedUser final UserDto user, @RequestBody @Valid final CreatePlanDto planDto) {
+    UUID userId = user.getId();
     final UUID createdId = planService.create(planDto, userId);
     return new ResponseEntity<>(createdId, HttpStatus.CREATED);
   }
@@ -97,10 +118,10 @@ public class PlanResource {
    */
   @PutMapping("/{id}")
   public ResponseEntity<UUID> updatePlan(
-      @RequestHeader("Authorization") final String token,
+      @AuthenticatedUser final UserDto user,
       @PathVariable(name = "id") final UUID id,
       @RequestBody @Valid final UpdatePlanDto planDto) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+    UUID userId = user.getId();
     PlanDto plan = planService.get(id);
     if (!plan.getUser().equals(userId)) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -112,16 +133,15 @@ public class PlanResource {
   /**
    * Delete a plan
    *
-   * @param token the jwt token
+   * @param user the authenticated user
    * @param id the id of the plan
    * @return 204 no content
    */
   @DeleteMapping("/{id}")
   @ApiResponse(responseCode = "204")
   public ResponseEntity<Void> deletePlan(
-      @RequestHeader("Authorization") final String token,
-      @PathVariable(name = "id") final UUID id) {
-    UUID userId = jwtService.getUserByToken(token).getId();
+      @AuthenticatedUser final UserDto user, @PathVariable(name = "id") final UUID id) {
+    UUID userId = user.getId();
     PlanDto plan = planService.get(id);
     if (!plan.getUser().equals(userId)) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
@@ -1,9 +1,15 @@
 package tabletop.gather.backend.plan;
 
+import jakarta.transaction.Transactional;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import tabletop.gather.backend.config.CacheConfig;
 import tabletop.gather.backend.game.Game;
 import tabletop.gather.backend.game.GameDto;
 import tabletop.gather.backend.game.GameRepository;
@@ -11,6 +17,7 @@ import tabletop.gather.backend.gathering.*;
 import tabletop.gather.backend.user.User;
 import tabletop.gather.backend.user.UserDto;
 import tabletop.gather.backend.user.UserRepository;
+import tabletop.gather.backend.util.EntityVersion;
 import tabletop.gather.backend.util.NotFoundException;
 
 @Service
@@ -19,76 +26,107 @@ public class PlanService {
   private final PlanRepository planRepository;
   private final UserRepository userRepository;
   private final GameRepository gameRepository;
+  private final GatheringRepository gatheringRepository;
+  private final PlanSummaryRepository planSummaryRepository;
+  private final PlanSummaryService planSummaryService;
 
   public PlanService(
       final PlanRepository planRepository,
       final UserRepository userRepository,
-      final GameRepository gameRepository) {
+      final GameRepository gameRepository,
+      final GatheringRepository gatheringRepository,
+      final PlanSummaryRepository planSummaryRepository,
+      final PlanSummaryService planSummaryService) {
     this.planRepository = planRepository;
     this.userRepository = userRepository;
     this.gameRepository = gameRepository;
+    this.gatheringRepository = gatheringRepository;
+    this.planSummaryRepository = planSummaryRepository;
+    this.planSummaryService = planSummaryService;
   }
 
   public List<OverviewPlanDto> findAllExceptUser(UUID userId) {
-    final List<Plan> plans = planRepository.findAllByIsPrivateFalse();
+    return findAllExceptUser(userId, Pageable.unpaged()).getContent();
+  }
 
-    return plans.stream()
-        .filter(
-            plan ->
-                plan.getGatherings().stream()
-                        .anyMatch(
-                            gathering ->
-                                gathering.getDate().isAfter(LocalDate.now())
-                                    && (plan.getPlayerLimit() == 0
-                                        || gathering.getUsers().size() < plan.getPlayerLimit()))
-                    && !plan.getUser().getId().equals(userId))
-        .sorted(planComparator)
-        .map(plan -> mapToDto(plan, new OverviewPlanDto()))
-        .toList();
+  /**
+   * Find a page of public plans with upcoming gatherings that have seats left. Filtering and
+   * ordering is done by the database on the plan summaries.
+   *
+   * @param userId the id of the user whose plans are excluded
+   * @param pageable the page to load
+   * @return the requested page of plans
+   */
+  public Page<OverviewPlanDto> findAllExceptUser(UUID userId, Pageable pageable) {
+    return planSummaryRepository
+        .findUpcomingPublicExceptUser(userId, LocalDate.now(), pageable)
+        .map(summary -> mapToDto(summary, summary.getGatherings(), new OverviewPlanDto()));
   }
 
   public List<OverviewPlanDto> findAll(UUID userId) {
-    final List<Plan> plans = planRepository.findAllByUserId(userId);
-    return plans.stream()
-        .filter(
-            plan ->
-                plan.getGatherings().stream()
-                    .anyMatch(gathering -> gathering.getDate().isAfter(LocalDate.now())))
-        .sorted(planComparator)
-        .map(plan -> mapToDto(plan, new OverviewPlanDto()))
+    final List<PlanSummary> summaries =
+        planSummaryRepository.findUpcomingByUserId(userId, LocalDate.now());
+    return summaries.stream()
+        .map(summary -> mapToDto(summary, summary.getGatherings(), new OverviewPlanDto()))
         .toList();
   }
 
+  /**
+   * Find all plans a user is attending. Each plan only contains the gatherings the user attends.
+   *
+   * @param userId the id of the attending user
+   * @return the plans, ordered by the earliest attended gathering
+   */
   public List<OverviewPlanDto> findAllAttending(UUID userId) {
-    final List<Plan> plans = planRepository.findAll();
-    return plans.stream()
-        .filter(
-            plan -> {
-              HashSet<Gathering> gatherings =
-                  plan.getGatherings().stream()
-                      .filter(
-                          gathering ->
-                              gathering.getUsers().stream()
-                                  .anyMatch(user -> user.getId().equals(userId)))
-                      .collect(Collectors.toCollection(HashSet::new));
-              if (!gatherings.isEmpty()) {
-                plan.setGatherings(gatherings);
-                return true;
-              }
-              return false;
-            })
-        .sorted(planComparator)
-        .map(plan -> mapToDto(plan, new OverviewPlanDto()))
+    final Set<UUID> attendedIds = gatheringRepository.findIdsAttendedBy(userId);
+    final List<PlanSummary> summaries = planSummaryRepository.findAllAttendedBy(userId);
+    return summaries.stream()
+        .map(
+            summary ->
+                mapToDto(
+                    summary,
+                    summary.getGatherings().stream()
+                        .filter(gathering -> attendedIds.contains(gathering.getId()))
+                        .toList(),
+                    new OverviewPlanDto()))
+        .filter(overviewPlanDto -> !overviewPlanDto.getGatheringDtos().isEmpty())
+        .sorted(
+            Comparator.comparing(
+                overviewPlanDto -> overviewPlanDto.getGatheringDtos().get(0).getDate()))
         .toList();
   }
 
+  /**
+   * Get the detail view of a plan. Results are cached per plan and evicted by {@link
+   * PlanSummaryService} whenever the plan, its gatherings or its owner change.
+   *
+   * @param id the id of the plan
+   * @return the plan with owner, game and gatherings
+   */
+  @Cacheable(cacheNames = CacheConfig.PLAN_DETAILS, key = "#id")
   public DetailPlanDto getDetail(final UUID id) {
     return planRepository
-        .findById(id)
-        .map(plan -> mapToDto(plan, new DetailPlanDto()))
+        .findDetailById(id)
+        .map(plan -> mapToDto(plan, countParticipants(id), new DetailPlanDto()))
         .orElseThrow(() -> new NotFoundException("plan not found"));
   }
 
+  /**
+   * Get the version of a plan's detail view.
+   *
+   * @param id the id of the plan
+   * @return the version, empty if the plan does not exist
+   */
+  public Optional<EntityVersion> getDetailVersion(final UUID id) {
+    return planRepository.findDetailVersionById(id);
+  }
+
+  /**
+   * Get a plan. Owner and game are only referenced by id, so no associations are loaded.
+   *
+   * @param id the id of the plan
+   * @return the plan
+   */
   public PlanDto get(final UUID id) {
     return planRepository
         .findById(id)
@@ -96,22 +134,28 @@ public class PlanService {
         .orElseThrow(() -> new NotFoundException("plan not found"));
   }
 
+  @Transactional
   public UUID create(final CreatePlanDto planDto, final UUID userId) {
     final Plan plan = new Plan();
     final User owner =
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("user not found"));
     mapToEntity(planDto, plan, owner);
     plan.setUser(owner);
-    return planRepository.save(plan).getId();
+    final UUID id = planRepository.save(plan).getId();
+    planSummaryService.refresh(id);
+    return id;
   }
 
+  @Transactional
   public void update(final UUID id, final UpdatePlanDto planDto) {
     final Plan plan =
         planRepository.findById(id).orElseThrow(() -> new NotFoundException("plan not found"));
     mapToEntity(planDto, plan);
     planRepository.save(plan);
+    planSummaryService.refresh(id);
   }
 
+  @CacheEvict(cacheNames = CacheConfig.PLAN_DETAILS, key = "#id")
   public void delete(final UUID id) {
     planRepository.deleteById(id);
   }
@@ -127,29 +171,28 @@ public class PlanService {
     return planDto;
   }
 
-  private OverviewPlanDto mapToDto(Plan plan, OverviewPlanDto overviewPlanDto) {
-    overviewPlanDto.setId(plan.getId());
-    overviewPlanDto.setName(plan.getName());
-    overviewPlanDto.setIsPrivate(plan.getIsPrivate());
-    overviewPlanDto.setDescription(plan.getDescription());
-    overviewPlanDto.setPlayerLimit(plan.getPlayerLimit());
+  private OverviewPlanDto mapToDto(
+      final PlanSummary summary,
+      final List<PlanSummaryGathering> gatherings,
+      final OverviewPlanDto overviewPlanDto) {
+    overviewPlanDto.setId(summary.getPlanId());
+    overviewPlanDto.setName(summary.getName());
+    overviewPlanDto.setIsPrivate(summary.getIsPrivate());
+    overviewPlanDto.setDescription(summary.getDescription());
+    overviewPlanDto.setPlayerLimit(summary.getPlayerLimit());
+    overviewPlanDto.setOwnerName(summary.getOwnerName());
 
-    User owner = plan.getUser();
-    overviewPlanDto.setOwnerName(String.format("%s %s", owner.getFirstName(), owner.getLastName()));
-
-    GameDto gameDto = new GameDto();
-    Game game = plan.getGame();
-    if (game != null) {
-      gameDto.setId(game.getId());
-      gameDto.setName(game.getName());
-      gameDto.setDescription(game.getDescription());
-      gameDto.setImageUrl(game.getImageUrl());
-      gameDto.setMinPlayer(game.getMinPlayer());
-      gameDto.setMaxPlayer(game.getMaxPlayer());
+    if (summary.getGameId() != null) {
+      GameDto gameDto = new GameDto();
+      gameDto.setId(summary.getGameId());
+      gameDto.setName(summary.getGameName());
+      gameDto.setDescription(summary.getGameDescription());
+      gameDto.setImageUrl(summary.getGameImageUrl());
+      gameDto.setMinPlayer(summary.getGameMinPlayer());
+      gameDto.setMaxPlayer(summary.getGameMaxPlayer());
       overviewPlanDto.setGame(gameDto);
     }
 
-    Set<Gathering> gatherings = plan.getGatherings();
     List<OverviewGatheringDto> gatheringDtos = new ArrayList<>();
     gatherings.forEach(
         gathering -> {
@@ -164,7 +207,16 @@ public class PlanService {
     return overviewPlanDto;
   }
 
-  private DetailPlanDto mapToDto(final Plan plan, final DetailPlanDto planDto) {
+  private Map<UUID, Long> countParticipants(final UUID planId) {
+    return gatheringRepository.countParticipantsByPlanId(planId).stream()
+        .collect(
+            Collectors.toMap(
+                GatheringParticipantCount::gatheringId,
+                GatheringParticipantCount::participantCount));
+  }
+
+  private DetailPlanDto mapToDto(
+      final Plan plan, final Map<UUID, Long> participantCounts, final DetailPlanDto planDto) {
     planDto.setId(plan.getId());
     planDto.setName(plan.getName());
     planDto.setIsPrivate(plan.getIsPrivate());
@@ -198,7 +250,8 @@ public class PlanService {
           gatheringDto.setId(gathering.getId());
           gatheringDto.setDate(gathering.getDate());
           gatheringDto.setStartTime(gathering.getStartTime());
-          gatheringDto.setParticipantCount(gathering.getUsers().size());
+          gatheringDto.setParticipantCount(
+              participantCounts.getOrDefault(gathering.getId(), 0L).intValue());
           gatheringDtos.add(gatheringDto);
         });
     planDto.setGatherings(gatheringDtos);
@@ -248,20 +301,4 @@ public class PlanService {
     plan.setGame(game);
     return plan;
   }
-
-  private Comparator<Plan> planComparator =
-      new Comparator<Plan>() {
-        @Override
-        public int compare(Plan plan1, Plan plan2) {
-          return plan1.getGatherings().stream()
-              .map(Gathering::getDate)
-              .min(LocalDate::compareTo)
-              .orElse(LocalDate.MAX)
-              .compareTo(
-                  plan2.getGatherings().stream()
-                      .map(Gathering::getDate)
-                      .min(LocalDate::compareTo)
-                      .orElse(LocalDate.MAX));
-        }
-      };
 }
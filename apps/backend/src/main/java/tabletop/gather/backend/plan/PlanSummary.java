@@ -0,0 +1,68 @@
+package tabletop.gather.backend.plan;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Denormalized read model of a plan. Holds everything the overview endpoints need in a single row
+ * and is kept up to date by the {@link PlanSummaryService}.
+ */
+@Entity
+@Table(name = "PlanSummaries")
+@Getter
+@Setter
+public class PlanSummary {
+
+  @Id
+  @Column(nullable = false, updatable = false)
+  private UUID planId;
+
+  @Column(nullable = false)
+  private String name;
+
+  @Column(nullable = false)
+  private Boolean isPrivate;
+
+  @Column(columnDefinition = "TEXT")
+  private String description;
+
+  @Column() private int playerLimit;
+
+  @Column() private UUID userId;
+
+  @Column(length = 511)
+  private String ownerName;
+
+  @Column() private UUID gameId;
+
+  @Column() private String gameName;
+
+  @Column(columnDefinition = "TEXT")
+  private String gameDescription;
+
+  @Column() private Integer gameMinPlayer;
+
+  @Column() private Integer gameMaxPlayer;
+
+  @Column(length = 500)
+  private String gameImageUrl;
+
+  /** Date of the first gathering of the plan, used as sort key. */
+  @Column() private LocalDate earliestDate;
+
+  /** Date of the last gathering of the plan. */
+  @Column() private LocalDate latestDate;
+
+  /** Date of the last gathering of the plan which still has seats left. */
+  @Column() private LocalDate latestOpenDate;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(columnDefinition = "jsonb", nullable = false)
+  private List<PlanSummaryGathering> gatherings;
+}
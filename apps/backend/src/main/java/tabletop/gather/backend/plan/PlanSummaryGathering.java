@@ -0,0 +1,20 @@
+package tabletop.gather.backend.plan;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PlanSummaryGathering {
+
+  private UUID id;
+
+  private LocalDate date;
+
+  private LocalTime startTime;
+
+  private int participantCount;
+}
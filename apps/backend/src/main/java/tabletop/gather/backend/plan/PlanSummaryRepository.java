@@ -0,0 +1,94 @@
+package tabletop.gather.backend.plan;
+
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface PlanSummaryRepository extends JpaRepository<PlanSummary, UUID> {
+
+  /**
+   * Find the summary of a plan and lock it until the transaction ends, so concurrent refreshes of
+   * the same plan count participants one after the other.
+   *
+   * @param planId the id of the plan
+   * @return the locked summary
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select s from PlanSummary s where s.planId = :planId")
+  Optional<PlanSummary> findForUpdate(UUID planId);
+
+  /**
+   * Find all public plans not owned by the given user, which have at least one gathering after the
+   * given date with seats left. Ordered by the earliest gathering date of each plan.
+   *
+   * @param userId the id of the user to exclude
+   * @param today the date gatherings have to be after
+   * @param pageable the page to load
+   * @return the requested page of plan summaries
+   */
+  @Query(
+      value =
+          """
+          select s from PlanSummary s
+          where s.isPrivate = false
+            and s.userId <> :userId
+            and s.latestOpenDate > :today
+          order by s.earliestDate, s.planId
+          """,
+      countQuery =
+          """
+          select count(s) from PlanSummary s
+          where s.isPrivate = false
+            and s.userId <> :userId
+            and s.latestOpenDate > :today
+          """)
+  Page<PlanSummary> findUpcomingPublicExceptUser(UUID userId, LocalDate today, Pageable pageable);
+
+  /**
+   * Find all plans of the given user which have at least one gathering after the given date.
+   * Ordered by the earliest gathering date of each plan.
+   *
+   * @param userId the id of the owner
+   * @param today the date gatherings have to be after
+   * @return the plan summaries
+   */
+  @Query(
+      """
+      select s from PlanSummary s
+      where s.userId = :userId
+        and s.latestDate > :today
+      order by s.earliestDate, s.planId
+      """)
+  List<PlanSummary> findUpcomingByUserId(UUID userId, LocalDate today);
+
+  /**
+   * Find all plans with at least one gathering the given user attends.
+   *
+   * @param userId the id of the attending user
+   * @return the plan summaries
+   */
+  @Query(
+      """
+      select s from PlanSummary s
+      where s.planId in (
+        select g.plan.id from Gathering g
+        join g.users u
+        where u.id = :userId)
+      """)
+  List<PlanSummary> findAllAttendedBy(UUID userId);
+
+  @Query("select s.planId from PlanSummary s where s.userId = :userId")
+  List<UUID> findPlanIdsByUserId(UUID userId);
+
+  @Modifying
+  @Query("update PlanSummary s set s.ownerName = :ownerName where s.userId = :userId")
+  int updateOwnerName(UUID userId, String ownerName);
+}
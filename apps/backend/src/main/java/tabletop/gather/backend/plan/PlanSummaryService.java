@@ -0,0 +1,176 @@
+package tabletop.gather.backend.plan;
+
+import jakarta.transaction.Transactional;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+import tabletop.gather.backend.config.CacheConfig;
+import tabletop.gather.backend.game.Game;
+import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringParticipantCount;
+import tabletop.gather.backend.gathering.GatheringRepository;
+import tabletop.gather.backend.user.User;
+
+@Service
+@Transactional
+public class PlanSummaryService {
+
+  private final PlanSummaryRepository planSummaryRepository;
+  private final PlanRepository planRepository;
+  private final GatheringRepository gatheringRepository;
+  private final CacheManager cacheManager;
+
+  public PlanSummaryService(
+      final PlanSummaryRepository planSummaryRepository,
+      final PlanRepository planRepository,
+      final GatheringRepository gatheringRepository,
+      final CacheManager cacheManager) {
+    this.planSummaryRepository = planSummaryRepository;
+    this.planRepository = planRepository;
+    this.gatheringRepository = gatheringRepository;
+    this.cacheManager = cacheManager;
+  }
+
+  /**
+   * Rebuild the summary of a plan from its current state and evict its cached detail view. Removes
+   * the summary if the plan does not exist anymore. The summary is locked until the transaction
+   * ends.
+   *
+   * @param planId the id of the plan
+   */
+  public void refresh(final UUID planId) {
+    evictDetail(planId);
+    // Lock first, the count then sees every change committed by an earlier refresh
+    final PlanSummary summary =
+        planSummaryRepository.findForUpdate(planId).orElseGet(PlanSummary::new);
+    planRepository
+        .findOverviewById(planId)
+        .ifPresentOrElse(
+            plan ->
+                planSummaryRepository.save(mapToSummary(plan, countParticipants(planId), summary)),
+            () -> planSummaryRepository.deleteById(planId));
+  }
+
+  /**
+   * Rebuild the summaries of multiple plans.
+   *
+   * @param planIds the ids of the plans
+   */
+  public void refresh(final Collection<UUID> planIds) {
+    planIds.stream().distinct().forEach(this::refresh);
+  }
+
+  /**
+   * Find the plans owned by the given user, for callers that are about to delete them.
+   *
+   * @param ownerId the id of the owner
+   * @return the ids of the plans
+   */
+  public List<UUID> findPlanIdsOwnedBy(final UUID ownerId) {
+    return planRepository.findIdsByUserId(ownerId);
+  }
+
+  /**
+   * Update the owner name on all summaries of plans owned by the given user and evict their cached
+   * detail views.
+   *
+   * @param owner the owner of the plans
+   */
+  public void refreshOwner(final User owner) {
+    planSummaryRepository.updateOwnerName(owner.getId(), getFullName(owner));
+    planSummaryRepository.findPlanIdsByUserId(owner.getId()).forEach(this::evictDetail);
+  }
+
+  /**
+   * Maps a plan to its summary.
+   *
+   * @param plan the plan to map
+   * @param participantCounts the number of attendees per gathering id
+   * @param summary the summary to map to
+   * @return the mapped summary
+   */
+  public PlanSummary mapToSummary(
+      final Plan plan, final Map<UUID, Long> participantCounts, final PlanSummary summary) {
+    summary.setPlanId(plan.getId());
+    summary.setName(plan.getName());
+    summary.setIsPrivate(plan.getIsPrivate());
+    summary.setDescription(plan.getDescription());
+    summary.setPlayerLimit(plan.getPlayerLimit());
+
+    User owner = plan.getUser();
+    summary.setUserId(owner == null ? null : owner.getId());
+    summary.setOwnerName(owner == null ? null : getFullName(owner));
+
+    Game game = plan.getGame();
+    summary.setGameId(game == null ? null : game.getId());
+    summary.setGameName(game == null ? null : game.getName());
+    summary.setGameDescription(game == null ? null : game.getDescription());
+    summary.setGameMinPlayer(game == null ? null : game.getMinPlayer());
+    summary.setGameMaxPlayer(game == null ? null : game.getMaxPlayer());
+    summary.setGameImageUrl(game == null ? null : game.getImageUrl());
+
+    List<PlanSummaryGathering> gatherings =
+        plan.getGatherings().stream()
+            .sorted(Comparator.comparing(Gathering::getDate).thenComparing(Gathering::getStartTime))
+            .map(
+                gathering ->
+                    mapToSummary(
+                        gathering,
+                        participantCounts.getOrDefault(gathering.getId(), 0L),
+                        new PlanSummaryGathering()))
+            .toList();
+    summary.setGatherings(gatherings);
+    summary.setEarliestDate(gatherings.isEmpty() ? null : gatherings.get(0).getDate());
+    summary.setLatestDate(
+        gatherings.stream()
+            .map(PlanSummaryGathering::getDate)
+            .max(LocalDate::compareTo)
+            .orElse(null));
+    summary.setLatestOpenDate(
+        gatherings.stream()
+            .filter(
+                gathering ->
+                    plan.getPlayerLimit() == 0
+                        || gathering.getParticipantCount() < plan.getPlayerLimit())
+            .map(PlanSummaryGathering::getDate)
+            .max(LocalDate::compareTo)
+            .orElse(null));
+    return summary;
+  }
+
+  /** Evicts once the surrounding transaction commits, so readers cannot re-cache the old state. */
+  private void evictDetail(final UUID planId) {
+    new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.PLAN_DETAILS))
+        .evict(planId);
+  }
+
+  private Map<UUID, Long> countParticipants(final UUID planId) {
+    return gatheringRepository.countParticipantsByPlanId(planId).stream()
+        .collect(
+            Collectors.toMap(
+                GatheringParticipantCount::gatheringId,
+                GatheringParticipantCount::participantCount));
+  }
+
+  private PlanSummaryGathering mapToSummary(
+      final Gathering gathering,
+      final long participantCount,
+      final PlanSummaryGathering summaryGathering) {
+    summaryGathering.setId(gathering.getId());
+    summaryGathering.setDate(gathering.getDate());
+    summaryGathering.setStartTime(gathering.getStartTime());
+    summaryGathering.setParticipantCount((int) participantCount);
+    return summaryGathering;
+  }
+
+  private String getFullName(final User user) {
+    return String.format("%s %s", user.getFirstName(), user.getLastName());
+  }
+}
@@ -0,0 +1,83 @@
+package tabletop.gather.backend.user;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tabletop.gather.backend.util.BloomFilter;
+
+/**
+ * Bloom filter of the registered emails, ignoring case. Most emails checked during registration are
+ * not taken, the filter answers those without a query. A match still has to be confirmed by the
+ * database.
+ *
+ * <p>Emails registered on other instances are only known after the next rebuild, so a miss is
+ * advisory: the unique index on lower(email) stays the authority on signup.
+ */
+@Component
+public class RegisteredEmails implements InitializingBean {
+  private static final int EXPECTED_EMAILS = 10_000;
+
+  private final UserRepository userRepository;
+
+  private volatile BloomFilter filter = new BloomFilter(EXPECTED_EMAILS);
+
+  /** Emails added since the last rebuild started, the database snapshot may not contain them. */
+  private volatile Set<String> added = ConcurrentHashMap.newKeySet();
+
+  public RegisteredEmails(final UserRepository userRepository) {
+    this.userRepository = userRepository;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    rebuild();
+  }
+
+  /**
+   * Checks whether the email might be registered.
+   *
+   * @param email the email to check
+   * @return false if the email is not registered, as far as this instance knows
+   */
+  public boolean mightBeRegistered(final String email) {
+    return filter.mightContain(normalize(email));
+  }
+
+  /**
+   * Records a registered email.
+   *
+   * @param email the registered email
+   */
+  public void add(final String email) {
+    final String normalized = normalize(email);
+    // The set first, an email put into the old filter only is then re-added after a swap
+    added.add(normalized);
+    filter.put(normalized);
+  }
+
+  /** Rebuilds the filter from the database, dropping emails that changed or were deleted. */
+  @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+  public synchronized void rebuild() {
+    final Set<String> addedBefore = added;
+    final Set<String> addedWhileLoading = ConcurrentHashMap.newKeySet();
+    added = addedWhileLoading;
+
+    final List<String> emails = userRepository.findAllLowerCaseEmails();
+    final BloomFilter rebuilt = new BloomFilter(Math.max(EXPECTED_EMAILS, 2 * emails.size()));
+    emails.forEach(rebuilt::put);
+    filter = rebuilt;
+    // Emails added before the snapshot may not have been committed yet, emails added while loading
+    // may have been put into the old filter only
+    addedBefore.forEach(rebuilt::put);
+    addedWhileLoading.forEach(rebuilt::put);
+  }
+
+  private String normalize(final String email) {
+    return email.toLowerCase(Locale.ROOT);
+  }
+}
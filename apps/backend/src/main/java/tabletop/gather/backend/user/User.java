@@ -47,6 +47,10 @@ public class User implements UserDetails {
   @Column(nullable = false, unique = true, length = 320)
   private String email;
 
+  /** Increased whenever tokens issued for this user must no longer be accepted. */
+  @Column(nullable = false)
+  private long tokenEpoch;
+
   @OneToMany(mappedBy = "user")
   private Set<Plan> sessionplans;
 
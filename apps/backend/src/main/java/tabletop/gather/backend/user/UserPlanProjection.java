@@ -0,0 +1,9 @@
+package tabletop.gather.backend.user;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/** Read-only projection of one gathering a user attends, as grouped into a {@link UserPlanDto}. */
+public record UserPlanProjection(
+    UUID userId, String firstName, String lastName, LocalDate date, LocalTime startTime) {}
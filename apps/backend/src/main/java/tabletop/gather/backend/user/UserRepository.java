@@ -4,15 +4,56 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import tabletop.gather.backend.game.Game;
+import tabletop.gather.backend.util.EntityVersion;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
   Optional<User> findByEmail(String username);
 
-  List<User> findByGatheringsPlanId(UUID id);
+  @Query("select u.tokenEpoch from User u where u.id = :id")
+  Optional<Long> findTokenEpochById(UUID id);
+
+  @Query(
+      """
+      select new tabletop.gather.backend.user.UserPlanProjection(
+        u.id, u.firstName, u.lastName, g.date, g.startTime)
+      from Gathering g join g.users u
+      where g.plan.id = :planId
+      order by u.firstName, u.lastName, u.id, g.date, g.startTime
+      """)
+  List<UserPlanProjection> findAttendingByPlanId(UUID planId);
+
+  @Query(
+      """
+      select new tabletop.gather.backend.util.EntityVersion(
+        greatest(p.lastUpdated, max(g.lastUpdated), max(u.lastUpdated)), count(u))
+      from Plan p
+      left join p.gatherings g
+      left join g.users u
+      where p.id = :planId
+      group by p.id
+      """)
+  Optional<EntityVersion> findAttendingVersionByPlanId(UUID planId);
 
   List<User> findAllByGames(Game game);
 
+  /**
+   * Check whether an email is registered, ignoring case. Compares with lower(), so the unique index
+   * on lower(email) answers it.
+   *
+   * @param email the email to check
+   * @return true if a user with the email exists
+   */
+  @Query(
+      """
+      select case when count(u) > 0 then true else false end
+      from User u
+      where lower(u.email) = lower(:email)
+      """)
   boolean existsByEmailIgnoreCase(String email);
+
+  @Query("select lower(u.email) from User u")
+  List<String> findAllLowerCaseEmails();
 }
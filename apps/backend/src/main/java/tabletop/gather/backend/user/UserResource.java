@@ -9,8 +9,11 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import tabletop.gather.backend.auth.AuthenticationService;
+import tabletop.gather.backend.auth.RefreshTokenService;
+import tabletop.gather.backend.config.AuthenticatedUser;
 import tabletop.gather.backend.jwt.JwtDto;
 import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.util.ConditionalResponse;
 
 @RequestMapping(value = "/api/users", produces = MediaType.APPLICATION_JSON_VALUE)
 @RestController
@@ -20,14 +23,17 @@ public class UserResource {
   private final JwtService jwtService;
 
   private final AuthenticationService authenticationService;
+  private final RefreshTokenService refreshTokenService;
 
   public UserResource(
       final UserService userService,
       final JwtService jwtService,
-      final AuthenticationService authenticationService) {
+      final AuthenticationService authenticationService,
+      final RefreshTokenService refreshTokenService) {
     this.userService = userService;
     this.jwtService = jwtService;
     this.authenticationService = authenticationService;
+    this.refreshTokenService = refreshTokenService;
   }
 
   /**
@@ -59,22 +65,24 @@ public class UserResource {
    */
   @GetMapping("/plan/{id}")
   public ResponseEntity<List<UserPlanDto>> getUsersByPlanId(
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
       @PathVariable(name = "id") final UUID id) {
-    return ResponseEntity.ok(userService.findByPlanId(id));
+    return ConditionalResponse.of(
+        ifNoneMatch,
+        userService.getAttendingVersionByPlanId(id),
+        () -> userService.findByPlanId(id));
   }
 
   /**
    * Updates the authenticated user.
    *
-   * @param token the JWT token
+   * @param user the authenticated user
    * @param userDto the user Dto to update
    * @return JWT token with expiration time
    */
   @PutMapping("/me")
   public ResponseEntity<JwtDto> updateAuthenticatedUser(
-      @RequestHeader(HttpHeaders.AUTHORIZATION) String token,
-      @RequestBody @Valid final UserUpdateDto userDto) {
-    UserDto user = jwtService.getUserByToken(token);
+      @AuthenticatedUser final UserDto user, @RequestBody @Valid final UserUpdateDto userDto) {
     authenticationService.verifyEmailPassword(user.getEmail(), userDto.getPassword());
     User updatedUser = userService.update(user.getId(), userDto, user.getEmail());
     JwtDto jwtToken = jwtService.getNewJwtToken(updatedUser);
@@ -83,51 +91,53 @@ public class UserResource {
   }
 
   /**
-   * Deletes the authenticated user.
+   * Deletes the authenticated user and revokes the token of the request.
    *
-   * @param token the JWT token
+   * @param token the token of the request
+   * @param user the authenticated user
    * @return 204
    */
   @DeleteMapping("/me")
   @ApiResponse(responseCode = "204")
   public ResponseEntity<Void> deleteAuthenticatedUser(
-      @RequestHeader(HttpHeaders.AUTHORIZATION) String token) {
-    UserDto user = jwtService.getUserByToken(token);
+      @RequestHeader(HttpHeaders.AUTHORIZATION) final String token,
+      @AuthenticatedUser final UserDto user) {
     userService.delete(user.getId());
+    jwtService.revoke(token);
     return ResponseEntity.noContent().build();
   }
 
   /**
    * Returns the authenticated user.
    *
-   * @param token the JWT token
+   * @param user the authenticated user
    * @return UserDto of the authenticated user
    */
   @GetMapping("/me")
   @ApiResponse(responseCode = "200")
-  public ResponseEntity<UserDto> getAuthenticatedUser(
-      @RequestHeader(HttpHeaders.AUTHORIZATION) String token) {
-    UserDto user = jwtService.getUserByToken(token);
+  public ResponseEntity<UserDto> getAuthenticatedUser(@AuthenticatedUser final UserDto user) {
     return ResponseEntity.ok(user);
   }
 
   /**
-   * Updates the password of the authenticated user.
+   * Updates the password of the authenticated user and revokes the token of the request.
    *
+   * @param token the token of the request
    * @param passwordUpdateDto the password update Dto
-   * @param token the JWT token
-   * @return JWT token with expiration time
+   * @param user the authenticated user
+   * @return JWT token with expiration time and a new refresh token, since the old ones are revoked
    */
   @PutMapping("/me/password")
   @ApiResponse(responseCode = "200")
   public ResponseEntity<JwtDto> updatePassword(
+      @RequestHeader(HttpHeaders.AUTHORIZATION) final String token,
       @RequestBody @Valid final PasswordUpdateDto passwordUpdateDto,
-      @RequestHeader(HttpHeaders.AUTHORIZATION) String token) {
-    UserDto user = jwtService.getUserByToken(token);
+      @AuthenticatedUser final UserDto user) {
     authenticationService.verifyEmailPassword(user.getEmail(), passwordUpdateDto.getPassword());
     User newUser = userService.updatePassword(user.getId(), passwordUpdateDto);
+    jwtService.revoke(token);
 
-    JwtDto jwtToken = jwtService.getNewJwtToken(newUser);
+    JwtDto jwtToken = refreshTokenService.createSession(newUser);
 
     return ResponseEntity.ok(jwtToken);
   }
@@ -1,11 +1,23 @@
 package tabletop.gather.backend.user;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Sort;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import tabletop.gather.backend.auth.RefreshTokenService;
 import tabletop.gather.backend.gathering.DateTimeGatheringDto;
+import tabletop.gather.backend.gathering.GatheringRepository;
+import tabletop.gather.backend.jwt.TokenEpochCache;
+import tabletop.gather.backend.plan.PlanSummaryService;
+import tabletop.gather.backend.util.EntityVersion;
 import tabletop.gather.backend.util.NotFoundException;
 
 @Service
@@ -15,9 +27,35 @@ public class UserService {
 
   private final PasswordEncoder passwordEncoder;
 
-  public UserService(final UserRepository userRepository, final PasswordEncoder passwordEncoder) {
+  private final GatheringRepository gatheringRepository;
+
+  private final PlanSummaryService planSummaryService;
+
+  private final TokenEpochCache tokenEpochCache;
+
+  private final UserCache userCache;
+
+  private final RefreshTokenService refreshTokenService;
+
+  private final RegisteredEmails registeredEmails;
+
+  public UserService(
+      final UserRepository userRepository,
+      final PasswordEncoder passwordEncoder,
+      final GatheringRepository gatheringRepository,
+      final PlanSummaryService planSummaryService,
+      final TokenEpochCache tokenEpochCache,
+      final UserCache userCache,
+      final RefreshTokenService refreshTokenService,
+      final RegisteredEmails registeredEmails) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.gatheringRepository = gatheringRepository;
+    this.planSummaryService = planSummaryService;
+    this.tokenEpochCache = tokenEpochCache;
+    this.userCache = userCache;
+    this.refreshTokenService = refreshTokenService;
+    this.registeredEmails = registeredEmails;
   }
 
   /**
@@ -63,12 +101,29 @@ public class UserService {
    * @return the list of users attending the plan
    */
   public List<UserPlanDto> findByPlanId(final UUID id) {
-    final List<User> users = userRepository.findByGatheringsPlanId(id);
-    return users.stream().map(user -> mapToDto(user, id, new UserPlanDto())).toList();
+    final Map<UUID, List<UserPlanProjection>> attendances =
+        userRepository.findAttendingByPlanId(id).stream()
+            .collect(
+                Collectors.groupingBy(
+                    UserPlanProjection::userId, LinkedHashMap::new, Collectors.toList()));
+    return attendances.values().stream()
+        .map(attending -> mapToDto(attending, new UserPlanDto()))
+        .toList();
+  }
+
+  /**
+   * Gets the version of the attendances of the plan with the given id.
+   *
+   * @param id the id of the plan
+   * @return the version, empty if the plan does not exist
+   */
+  public Optional<EntityVersion> getAttendingVersionByPlanId(final UUID id) {
+    return userRepository.findAttendingVersionByPlanId(id);
   }
 
   /**
-   * Updates the user with the given id.
+   * Updates the user with the given id. Tokens issued before are no longer accepted, since they
+   * carry the old profile.
    *
    * @param id the id of the user to update
    * @param userDto the user Dto containing the updated values
@@ -79,21 +134,36 @@ public class UserService {
     final User user =
         userRepository.findById(id).orElseThrow(() -> new NotFoundException("user not found"));
     mapToEntity(userDto, user);
+    user.setTokenEpoch(user.getTokenEpoch() + 1);
     userRepository.save(user);
+    tokenEpochCache.update(id, user.getTokenEpoch());
+    userCache.removeUserFromCache(currentEmail);
+    userCache.removeUserFromCache(user.getEmail());
+    registeredEmails.add(user.getEmail());
+    planSummaryService.refreshOwner(user);
     return user;
   }
 
   /**
-   * Deletes the user with the given id.
+   * Deletes the user with the given id. Plans the user attended are refreshed afterwards, since
+   * their participant counts changed. Plans the user owned are deleted with the user, refreshing
+   * them removes their summaries and cached detail views.
    *
    * @param id the id of the user to delete
    */
   public void delete(final UUID id) {
+    final Set<UUID> planIds = new HashSet<>(gatheringRepository.findPlanIdsAttendedBy(id));
+    planIds.addAll(planSummaryService.findPlanIdsOwnedBy(id));
+    final Optional<String> email = userRepository.findById(id).map(User::getEmail);
     userRepository.deleteById(id);
+    tokenEpochCache.evict(id);
+    email.ifPresent(userCache::removeUserFromCache);
+    planSummaryService.refresh(planIds);
   }
 
   /**
-   * Updates the password of the user with the given id.
+   * Updates the password of the user with the given id. Tokens issued before are no longer accepted
+   * and all refresh tokens are revoked.
    *
    * @param id the id of the user to update
    * @param passwordUpdateDto the password update Dto containing the updated password
@@ -103,7 +173,11 @@ public class UserService {
     final User user =
         userRepository.findById(id).orElseThrow(() -> new NotFoundException("user not found"));
     user.setPasswordHash(passwordEncoder.encode(passwordUpdateDto.getNewPassword()));
+    user.setTokenEpoch(user.getTokenEpoch() + 1);
     userRepository.save(user);
+    tokenEpochCache.update(id, user.getTokenEpoch());
+    userCache.removeUserFromCache(user.getEmail());
+    refreshTokenService.revokeAll(id);
     return user;
   }
 
@@ -123,16 +197,17 @@ public class UserService {
     return userDto;
   }
 
-  private UserPlanDto mapToDto(final User user, final UUID planId, final UserPlanDto userPlanDto) {
-    userPlanDto.setFullName(String.format("%s %s", user.getFirstName(), user.getLastName()));
+  private UserPlanDto mapToDto(
+      final List<UserPlanProjection> attending, final UserPlanDto userPlanDto) {
+    final UserPlanProjection user = attending.get(0);
+    userPlanDto.setFullName(String.format("%s %s", user.firstName(), user.lastName()));
     final List<DateTimeGatheringDto> gatheringsDto =
-        user.getGatherings().stream()
-            .filter(gathering -> gathering.getPlan().getId().equals(planId))
+        attending.stream()
             .map(
                 gathering -> {
                   DateTimeGatheringDto dto = new DateTimeGatheringDto();
-                  dto.setStartTime(gathering.getStartTime());
-                  dto.setDate(gathering.getDate());
+                  dto.setStartTime(gathering.startTime());
+                  dto.setDate(gathering.date());
                   return dto;
                 })
             .toList();
@@ -0,0 +1,84 @@
+package tabletop.gather.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings with a false positive rate of about 1% at its expected size. Bits are
+ * only ever set, so it is safe for concurrent use without locking. It cannot forget values, rebuild
+ * it to drop them.
+ */
+public final class BloomFilter {
+  private static final int HASHES = 7;
+
+  private final AtomicLongArray words;
+  private final long bits;
+
+  /**
+   * Creates an empty filter.
+   *
+   * @param expectedInsertions the number of values the false positive rate is sized for
+   */
+  public BloomFilter(final int expectedInsertions) {
+    // m = -n * ln(p) / ln(2)^2 with p = 0.01, about 9.6 bits per entry
+    final long wordCount = Math.max(1, (long) Math.ceil(expectedInsertions * 9.6 / 64));
+    this.words = new AtomicLongArray(Math.toIntExact(wordCount));
+    this.bits = wordCount * 64;
+  }
+
+  /**
+   * Adds a value.
+   *
+   * @param value the value to add
+   */
+  public void put(final String value) {
+    final long hash = hash(value);
+    for (int i = 1; i <= HASHES; i++) {
+      final long bit = index(hash, i);
+      final int word = (int) (bit >>> 6);
+      final long mask = 1L << bit;
+      long current;
+      while (((current = words.get(word)) & mask) == 0
+          && !words.compareAndSet(word, current, current | mask)) {
+        // retry until the bit is set
+      }
+    }
+  }
+
+  /**
+   * Checks whether a value might have been added.
+   *
+   * @param value the value to check
+   * @return false if the value has certainly not been added
+   */
+  public boolean mightContain(final String value) {
+    final long hash = hash(value);
+    for (int i = 1; i <= HASHES; i++) {
+      final long bit = index(hash, i);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The i-th bit index, derived from the two halves of the hash (Kirsch-Mitzenmacher). */
+  private long index(final long hash, final int i) {
+    final int combined = (int) hash + i * (int) (hash >>> 32);
+    return Integer.toUnsignedLong(combined) % bits;
+  }
+
+  /** 64 bit FNV-1a, finished with the MurmurHash3 mixer to spread the bits. */
+  private static long hash(final String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb53fe1a85ec3L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
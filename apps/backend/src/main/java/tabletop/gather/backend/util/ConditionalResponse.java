@@ -0,0 +1,54 @@
+package tabletop.gather.backend.util;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/** Builds responses for conditional GET requests validated by an {@link EntityVersion}. */
+public final class ConditionalResponse {
+
+  private ConditionalResponse() {}
+
+  /**
+   * Answers 304 Not Modified if the If-None-Match header matches the current version, without
+   * building the body. Otherwise answers 200 with the body and the version's ETag. Without a
+   * version the body is returned unconditionally.
+   *
+   * @param ifNoneMatch the If-None-Match header of the request, may be null
+   * @param version the current version of the resource
+   * @param body supplies the body if it has to be sent
+   * @return the response
+   */
+  public static <T> ResponseEntity<T> of(
+      final String ifNoneMatch, final Optional<EntityVersion> version, final Supplier<T> body) {
+    if (version.isEmpty()) {
+      return ResponseEntity.ok(body.get());
+    }
+    final String eTag = version.get().toETag();
+    final CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (matches(ifNoneMatch, eTag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(eTag)
+          .cacheControl(cacheControl)
+          .build();
+    }
+    return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body.get());
+  }
+
+  private static boolean matches(final String ifNoneMatch, final String eTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    final String opaqueTag = stripWeak(eTag);
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .anyMatch(tag -> tag.equals("*") || stripWeak(tag).equals(opaqueTag));
+  }
+
+  private static String stripWeak(final String eTag) {
+    return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+  }
+}
@@ -0,0 +1,107 @@
+package tabletop.gather.backend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time: fields separated by commas, optionally enclosed in
+ * double quotes, with doubled quotes and line breaks allowed inside quotes. Only the current record
+ * is held in memory.
+ */
+public final class CsvReader implements Closeable {
+  private static final int END = -1;
+
+  private final Reader reader;
+  private long lineNumber = 1;
+  private int peeked = Integer.MIN_VALUE;
+
+  /**
+   * @param reader the CSV text, buffered by the caller
+   */
+  public CsvReader(final Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * @return the line the next record starts on, counting line breaks inside quotes
+   */
+  public long getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @return the fields of the record, null at the end of the input
+   * @throws IOException if the input cannot be read or a quoted field is not closed
+   */
+  public List<String> read() throws IOException {
+    int c = next();
+    if (c == END) {
+      return null;
+    }
+    final List<String> fields = new ArrayList<>();
+    final StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == END) {
+          throw new IOException("unclosed quote before line " + lineNumber);
+        }
+        if (c == '"') {
+          if (peek() == '"') {
+            field.append('"');
+            next();
+          } else {
+            quoted = false;
+          }
+        } else {
+          field.append((char) c);
+        }
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\r' || c == '\n' || c == END) {
+        if (c == '\r' && peek() == '\n') {
+          next();
+        }
+        fields.add(field.toString());
+        return fields;
+      } else {
+        field.append((char) c);
+      }
+      c = next();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private int next() throws IOException {
+    final int c;
+    if (peeked != Integer.MIN_VALUE) {
+      c = peeked;
+      peeked = Integer.MIN_VALUE;
+    } else {
+      c = reader.read();
+    }
+    if (c == '\n') {
+      lineNumber++;
+    }
+    return c;
+  }
+
+  private int peek() throws IOException {
+    if (peeked == Integer.MIN_VALUE) {
+      peeked = reader.read();
+    }
+    return peeked;
+  }
+}
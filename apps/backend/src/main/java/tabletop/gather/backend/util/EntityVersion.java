@@ -0,0 +1,23 @@
+package tabletop.gather.backend.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Version of a resource, taken from the newest lastUpdated of the rows it is built from and the
+ * number of those rows, so that removed rows change the version as well.
+ *
+ * @param lastUpdated the newest lastUpdated of the rows
+ * @param count the number of rows
+ */
+public record EntityVersion(OffsetDateTime lastUpdated, Long count) {
+
+  /**
+   * @return a weak entity tag identifying this version
+   */
+  public String toETag() {
+    return String.format(
+        "W/\"%x-%x\"", ChronoUnit.MICROS.between(Instant.EPOCH, lastUpdated.toInstant()), count);
+  }
+}
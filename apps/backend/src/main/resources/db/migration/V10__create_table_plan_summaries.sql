@@ -0,0 +1,43 @@
+CREATE TABLE plan_summaries (
+  plan_id UUID NOT NULL,
+   name VARCHAR(255) NOT NULL,
+   is_private BOOLEAN NOT NULL,
+   description TEXT,
+   player_limit INT,
+   user_id UUID,
+   owner_name VARCHAR(511),
+   game_id UUID,
+   game_name VARCHAR(255),
+   game_description TEXT,
+   game_min_player INTEGER,
+   game_max_player INTEGER,
+   game_image_url VARCHAR(500),
+   earliest_date DATE,
+   latest_date DATE,
+   latest_open_date DATE,
+   gatherings JSONB NOT NULL,
+   CONSTRAINT pk_plan_summaries PRIMARY KEY (plan_id)
+);
+
+ALTER TABLE plan_summaries ADD CONSTRAINT fk_plan_summaries_on_plan FOREIGN KEY (plan_id) REFERENCES plans (id) ON DELETE CASCADE;
+
+CREATE INDEX idx_plan_summaries_user_id ON plan_summaries (user_id);
+
+INSERT INTO plan_summaries (plan_id, name, is_private, description, player_limit, user_id, owner_name, game_id, game_name, game_description, game_min_player, game_max_player, game_image_url, earliest_date, latest_date, latest_open_date, gatherings)
+SELECT p.id, p.name, p.is_private, p.description, COALESCE(p.player_limit, 0), p.user_id, u.first_name || ' ' || u.last_name,
+       g.id, g.name, g.description, g.min_player, g.max_player, g.image_url,
+       s.earliest_date, s.latest_date, s.latest_open_date, COALESCE(s.gatherings, '[]'::jsonb)
+FROM plans p
+LEFT JOIN users u ON u.id = p.user_id
+LEFT JOIN games g ON g.id = p.game_id
+LEFT JOIN LATERAL (
+  SELECT MIN(ga.date) AS earliest_date,
+         MAX(ga.date) AS latest_date,
+         MAX(ga.date) FILTER (WHERE COALESCE(p.player_limit, 0) = 0 OR ga.participant_count < p.player_limit) AS latest_open_date,
+         jsonb_agg(jsonb_build_object('id', ga.id, 'date', ga.date, 'startTime', ga.start_time, 'participantCount', ga.participant_count) ORDER BY ga.date, ga.start_time) AS gatherings
+  FROM (
+    SELECT gt.id, gt.date, gt.start_time, (SELECT COUNT(*) FROM gathering_users gu WHERE gu.gathering_id = gt.id) AS participant_count
+    FROM gatherings gt
+    WHERE gt.plan_id = p.id
+  ) ga
+) s ON TRUE;
@@ -0,0 +1,5 @@
+CREATE INDEX idx_plan_summaries_public_earliest_date ON plan_summaries (earliest_date, plan_id) WHERE is_private = false;
+
+DROP INDEX idx_plan_summaries_user_id;
+
+CREATE INDEX idx_plan_summaries_user_id_earliest_date ON plan_summaries (user_id, earliest_date, plan_id);
@@ -0,0 +1,2 @@
+ALTER TABLE users
+  ADD COLUMN token_epoch BIGINT NOT NULL DEFAULT 0;
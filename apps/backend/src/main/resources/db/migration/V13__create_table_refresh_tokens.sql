@@ -0,0 +1,15 @@
+CREATE TABLE refresh_tokens (
+  id UUID NOT NULL,
+   user_id UUID NOT NULL,
+   token_hash VARCHAR(64) NOT NULL,
+   expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+   date_created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+   last_updated TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+   CONSTRAINT pk_refresh_tokens PRIMARY KEY (id)
+);
+
+ALTER TABLE refresh_tokens ADD CONSTRAINT uc_refresh_tokens_token_hash UNIQUE (token_hash);
+
+ALTER TABLE refresh_tokens ADD CONSTRAINT fk_refresh_tokens_on_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens (user_id);
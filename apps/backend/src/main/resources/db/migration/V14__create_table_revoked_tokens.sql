@@ -0,0 +1,7 @@
+CREATE TABLE revoked_tokens (
+  jti UUID NOT NULL,
+   expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+   CONSTRAINT pk_revoked_tokens PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,16 @@
+-- uc_users_email is case-sensitive, so existing emails may differ only in case. Those accounts
+-- have to be merged or renamed deliberately before the index can be created, see "Case-only
+-- duplicate emails" in the backend README.
+DO $$
+DECLARE
+  duplicates bigint;
+BEGIN
+  SELECT count(*) INTO duplicates
+  FROM (SELECT 1 FROM users GROUP BY lower(email) HAVING count(*) > 1) duplicate;
+  IF duplicates > 0 THEN
+    RAISE EXCEPTION '% emails are registered more than once, differing only in case', duplicates
+      USING HINT = 'Resolve them as described in "Case-only duplicate emails" in the backend README, then rerun the migration.';
+  END IF;
+END $$;
+
+CREATE UNIQUE INDEX uc_users_email_lower ON users (lower(email));
@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_games_name_trgm ON games USING gin (name gin_trgm_ops);
+
+CREATE INDEX idx_games_name_id ON games (name, id);
@@ -0,0 +1 @@
+CREATE INDEX idx_gathering_users_user_id ON gathering_users (user_id);
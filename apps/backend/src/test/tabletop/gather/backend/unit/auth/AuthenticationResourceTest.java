@@ -1,6 +1,9 @@
 package tabletop.gather.backend.unit.auth;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.UUID;
@@ -14,6 +17,8 @@ import org.springframework.http.ResponseEntity;
 import tabletop.gather.backend.auth.AuthenticationResource;
 import tabletop.gather.backend.auth.AuthenticationService;
 import tabletop.gather.backend.auth.LoginUserDto;
+import tabletop.gather.backend.auth.RefreshTokenDto;
+import tabletop.gather.backend.auth.RefreshTokenService;
 import tabletop.gather.backend.auth.RegisterUserDto;
 import tabletop.gather.backend.jwt.JwtDto;
 import tabletop.gather.backend.jwt.JwtService;
@@ -24,10 +29,12 @@ public class AuthenticationResourceTest {
 
   @InjectMocks private AuthenticationResource authenticationResource;
 
-  @Mock private JwtService jwtService;
-
   @Mock private AuthenticationService authenticationService;
 
+  @Mock private RefreshTokenService refreshTokenService;
+
+  @Mock private JwtService jwtService;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -55,14 +62,63 @@ public class AuthenticationResourceTest {
     JwtDto jwtDto = new JwtDto();
     jwtDto.setToken("token");
     jwtDto.setExpiresIn(3600L);
+    jwtDto.setRefreshToken("refreshToken");
     when(authenticationService.authenticate(loginUserDto)).thenReturn(user);
-    when(jwtService.generateToken(user)).thenReturn(jwtDto.getToken());
-    when(jwtService.getExpirationTime()).thenReturn(jwtDto.getExpiresIn());
+    when(refreshTokenService.createSession(user)).thenReturn(jwtDto);
 
     ResponseEntity<JwtDto> response = authenticationResource.authenticate(loginUserDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(jwtDto.getToken(), response.getBody().getToken());
     assertEquals(jwtDto.getExpiresIn(), response.getBody().getExpiresIn());
+    assertEquals(jwtDto.getRefreshToken(), response.getBody().getRefreshToken());
+  }
+
+  @Test
+  public void testRefresh() {
+    RefreshTokenDto refreshTokenDto = new RefreshTokenDto();
+    refreshTokenDto.setRefreshToken("refreshToken");
+    JwtDto jwtDto = new JwtDto();
+    jwtDto.setRefreshToken("newRefreshToken");
+    when(refreshTokenService.refresh("refreshToken")).thenReturn(jwtDto);
+
+    ResponseEntity<JwtDto> response = authenticationResource.refresh(refreshTokenDto);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(jwtDto, response.getBody());
+  }
+
+  @Test
+  public void testIsEmailTaken() {
+    when(authenticationService.isEmailTaken("mock@mock.ch")).thenReturn(true);
+
+    ResponseEntity<Boolean> response = authenticationResource.isEmailTaken("mock@mock.ch");
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(true, response.getBody());
+  }
+
+  @Test
+  public void testLogout() {
+    RefreshTokenDto refreshTokenDto = new RefreshTokenDto();
+    refreshTokenDto.setRefreshToken("refreshToken");
+
+    ResponseEntity<Void> response = authenticationResource.logout("Bearer token", refreshTokenDto);
+
+    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    verify(refreshTokenService, times(1)).revoke("refreshToken");
+    verify(jwtService, times(1)).revoke("Bearer token");
+  }
+
+  @Test
+  public void testLogoutWithoutToken() {
+    RefreshTokenDto refreshTokenDto = new RefreshTokenDto();
+    refreshTokenDto.setRefreshToken("refreshToken");
+
+    ResponseEntity<Void> response = authenticationResource.logout(null, refreshTokenDto);
+
+    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    verify(refreshTokenService, times(1)).revoke("refreshToken");
+    verifyNoInteractions(jwtService);
   }
 }
@@ -3,17 +3,23 @@ package tabletop.gather.backend.unit.auth;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.sql.SQLException;
 import java.util.Optional;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
 import tabletop.gather.backend.auth.*;
 import tabletop.gather.backend.user.*;
+import tabletop.gather.backend.util.TooManyRequestsException;
 
 public class AuthenticationServiceTest {
 
@@ -27,6 +33,10 @@ public class AuthenticationServiceTest {
 
   @Mock private PasswordEncoder passwordEncoder;
 
+  @Mock private PasswordAttemptThrottle passwordAttemptThrottle;
+
+  @Mock private RegisteredEmails registeredEmails;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -34,12 +44,63 @@ public class AuthenticationServiceTest {
 
   @Test
   public void testIsEmailTaken() {
-    when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(new User()));
+    when(registeredEmails.mightBeRegistered("test@test.com")).thenReturn(true);
+    when(userRepository.existsByEmailIgnoreCase("test@test.com")).thenReturn(true);
 
     boolean isEmailTaken = authenticationService.isEmailTaken("test@test.com");
 
     assertTrue(isEmailTaken);
-    verify(userRepository, times(1)).findByEmail(anyString());
+    verify(userRepository, times(1)).existsByEmailIgnoreCase("test@test.com");
+    verify(passwordAttemptThrottle, times(1)).acquireEmailLookup();
+  }
+
+  @Test
+  public void testIsEmailTakenSkipsQueryForUnknownEmail() {
+    when(registeredEmails.mightBeRegistered("test@test.com")).thenReturn(false);
+
+    boolean isEmailTaken = authenticationService.isEmailTaken("test@test.com");
+
+    assertFalse(isEmailTaken);
+    verify(userRepository, never()).existsByEmailIgnoreCase(anyString());
+  }
+
+  @Test
+  public void testSignupWithTakenEmail() {
+    RegisterUserDto registerUserDto = new RegisterUserDto();
+    registerUserDto.setEmail("test@test.com");
+    registerUserDto.setPassword("test");
+    when(registeredEmails.mightBeRegistered("test@test.com")).thenReturn(true);
+    when(userRepository.existsByEmailIgnoreCase("test@test.com")).thenReturn(true);
+
+    ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class, () -> authenticationService.signup(registerUserDto));
+
+    assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    verify(passwordEncoder, never()).encode(anyString());
+    verify(userRepository, never()).save(any(User.class));
+    verify(passwordAttemptThrottle, never()).acquireEmailLookup();
+  }
+
+  @Test
+  public void testSignupTranslatesUniqueViolation() {
+    RegisterUserDto registerUserDto = new RegisterUserDto();
+    registerUserDto.setEmail("Test@test.com");
+    registerUserDto.setPassword("test");
+    when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+    when(userRepository.save(any(User.class)))
+        .thenThrow(
+            new DataIntegrityViolationException(
+                "duplicate key",
+                new ConstraintViolationException(
+                    "duplicate key", new SQLException(), "uc_users_email_lower")));
+
+    ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class, () -> authenticationService.signup(registerUserDto));
+
+    assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    verify(registeredEmails, never()).add(anyString());
   }
 
   @Test
@@ -61,6 +122,7 @@ public class AuthenticationServiceTest {
     verify(passwordEncoder, times(1)).encode(anyString());
     verify(userRepository, times(1)).save(any(User.class));
     verify(userService, times(1)).mapToDto(any(User.class), any(UserDto.class));
+    verify(registeredEmails, times(1)).add("test@test.com");
   }
 
   @Test
@@ -74,11 +136,27 @@ public class AuthenticationServiceTest {
     User authenticatedUser = authenticationService.authenticate(loginUserDto);
 
     assertEquals(user, authenticatedUser);
+    verify(passwordAttemptThrottle, times(1)).acquire("test@test.com");
     verify(authenticationManager, times(1))
         .authenticate(any(UsernamePasswordAuthenticationToken.class));
     verify(userRepository, times(1)).findByEmail(anyString());
   }
 
+  @Test
+  public void testAuthenticateThrottled() {
+    LoginUserDto loginUserDto = new LoginUserDto();
+    loginUserDto.setEmail("test@test.com");
+    loginUserDto.setPassword("test");
+    doThrow(new TooManyRequestsException("too many password attempts", 6))
+        .when(passwordAttemptThrottle)
+        .acquire("test@test.com");
+
+    assertThrows(
+        TooManyRequestsException.class, () -> authenticationService.authenticate(loginUserDto));
+
+    verify(authenticationManager, never()).authenticate(any());
+  }
+
   @Test
   public void testVerifyEmailPassword() {
     String email = "test@test.ch";
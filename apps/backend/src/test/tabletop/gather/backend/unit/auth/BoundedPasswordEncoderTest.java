@@ -0,0 +1,87 @@
+package tabletop.gather.backend.unit.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tabletop.gather.backend.auth.BoundedPasswordEncoder;
+import tabletop.gather.backend.util.TooManyRequestsException;
+
+public class BoundedPasswordEncoderTest {
+
+  private BoundedPasswordEncoder boundedPasswordEncoder;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @Mock private PasswordEncoder passwordEncoder;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    boundedPasswordEncoder = new BoundedPasswordEncoder(passwordEncoder, 1, 1, meterRegistry);
+  }
+
+  @AfterEach
+  public void destroy() {
+    boundedPasswordEncoder.destroy();
+  }
+
+  @Test
+  public void testEncodeAndMatches() {
+    when(passwordEncoder.encode("password")).thenReturn("hash");
+    when(passwordEncoder.matches("password", "hash")).thenReturn(true);
+
+    assertEquals("hash", boundedPasswordEncoder.encode("password"));
+    assertTrue(boundedPasswordEncoder.matches("password", "hash"));
+    assertEquals(1, meterRegistry.timer("password.hashing", "operation", "encode").count());
+    assertEquals(1, meterRegistry.timer("password.hashing", "operation", "matches").count());
+    assertEquals(2, meterRegistry.timer("password.hashing.wait").count());
+  }
+
+  @Test
+  public void testRejectsWhenSaturated() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(passwordEncoder.encode("slow"))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return "hash";
+            });
+    when(passwordEncoder.encode("queued")).thenReturn("hash");
+    CompletableFuture<String> running =
+        CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("slow"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued =
+        CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("queued"));
+    while (meterRegistry.get("executor.queued").gauge().value() < 1) {
+      Thread.onSpinWait();
+    }
+
+    assertThrows(TooManyRequestsException.class, () -> boundedPasswordEncoder.encode("rejected"));
+
+    release.countDown();
+    assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+    assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    assertEquals(1, meterRegistry.counter("password.hashing.rejected").count(), 0);
+  }
+
+  @Test
+  public void testPropagatesExceptions() {
+    when(passwordEncoder.matches(any(), any())).thenThrow(new IllegalArgumentException("bad"));
+
+    assertThrows(
+        IllegalArgumentException.class, () -> boundedPasswordEncoder.matches("password", "hash"));
+  }
+}
@@ -0,0 +1,96 @@
+package tabletop.gather.backend.unit.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tabletop.gather.backend.auth.PasswordAttemptThrottle;
+import tabletop.gather.backend.util.TooManyRequestsException;
+
+public class PasswordAttemptThrottleTest {
+
+  private PasswordAttemptThrottle passwordAttemptThrottle;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  public void init() {
+    meterRegistry = new SimpleMeterRegistry();
+    passwordAttemptThrottle = new PasswordAttemptThrottle(3, 5, 2, meterRegistry);
+  }
+
+  @AfterEach
+  public void reset() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  public void testAcquirePerEmail() {
+    for (int i = 0; i < 3; i++) {
+      passwordAttemptThrottle.acquire("Test@test.com");
+    }
+
+    TooManyRequestsException exception =
+        assertThrows(
+            TooManyRequestsException.class, () -> passwordAttemptThrottle.acquire("test@test.com"));
+
+    assertTrue(exception.getRetryAfterSeconds() > 0);
+    assertEquals(1, meterRegistry.counter("password.throttle.rejected", "key", "email").count(), 0);
+    passwordAttemptThrottle.acquire("other@test.com");
+  }
+
+  @Test
+  public void testAcquirePerEmailKeepsOtherAddressesOpen() {
+    MockHttpServletRequest attacker = new MockHttpServletRequest();
+    attacker.setRemoteAddr("10.0.0.1");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(attacker));
+    for (int i = 0; i < 3; i++) {
+      passwordAttemptThrottle.acquire("test@test.com");
+    }
+    assertThrows(
+        TooManyRequestsException.class, () -> passwordAttemptThrottle.acquire("test@test.com"));
+
+    MockHttpServletRequest owner = new MockHttpServletRequest();
+    owner.setRemoteAddr("10.0.0.2");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(owner));
+
+    passwordAttemptThrottle.acquire("test@test.com");
+  }
+
+  @Test
+  public void testAcquirePerAddress() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setRemoteAddr("10.0.0.1");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    for (int i = 0; i < 5; i++) {
+      passwordAttemptThrottle.acquire("user" + i + "@test.com");
+    }
+
+    assertThrows(
+        TooManyRequestsException.class, () -> passwordAttemptThrottle.acquire("user5@test.com"));
+
+    assertEquals(
+        1, meterRegistry.counter("password.throttle.rejected", "key", "address").count(), 0);
+  }
+
+  @Test
+  public void testAcquireEmailLookupPerAddress() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setRemoteAddr("10.0.0.1");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    passwordAttemptThrottle.acquireEmailLookup();
+    passwordAttemptThrottle.acquireEmailLookup();
+
+    assertThrows(
+        TooManyRequestsException.class, () -> passwordAttemptThrottle.acquireEmailLookup());
+
+    assertEquals(
+        1, meterRegistry.counter("password.throttle.rejected", "key", "lookup").count(), 0);
+    passwordAttemptThrottle.acquire("user@test.com");
+  }
+}
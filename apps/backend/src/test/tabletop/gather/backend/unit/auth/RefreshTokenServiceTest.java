@@ -0,0 +1,109 @@
+package tabletop.gather.backend.unit.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import tabletop.gather.backend.auth.RefreshToken;
+import tabletop.gather.backend.auth.RefreshTokenRepository;
+import tabletop.gather.backend.auth.RefreshTokenService;
+import tabletop.gather.backend.jwt.JwtDto;
+import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.user.User;
+
+public class RefreshTokenServiceTest {
+
+  private RefreshTokenService refreshTokenService;
+
+  @Mock private RefreshTokenRepository refreshTokenRepository;
+
+  @Mock private JwtService jwtService;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    refreshTokenService =
+        new RefreshTokenService(refreshTokenRepository, jwtService, 2_592_000_000L);
+  }
+
+  @Test
+  public void testCreateSession() {
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    when(jwtService.getNewJwtToken(user)).thenReturn(new JwtDto());
+
+    JwtDto jwtDto = refreshTokenService.createSession(user);
+
+    ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+    verify(refreshTokenRepository, times(1)).save(captor.capture());
+    assertNotNull(jwtDto.getRefreshToken());
+    assertEquals(user, captor.getValue().getUser());
+    assertEquals(64, captor.getValue().getTokenHash().length());
+    assertNotEquals(jwtDto.getRefreshToken(), captor.getValue().getTokenHash());
+    assertTrue(captor.getValue().getExpiresAt().isAfter(OffsetDateTime.now().plusDays(29)));
+  }
+
+  @Test
+  public void testRefresh() {
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    when(jwtService.getNewJwtToken(user)).thenReturn(new JwtDto());
+    String token = refreshTokenService.createSession(user).getRefreshToken();
+    ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+    verify(refreshTokenRepository).save(captor.capture());
+    RefreshToken refreshToken = captor.getValue();
+    refreshToken.setId(UUID.randomUUID());
+    when(refreshTokenRepository.findByTokenHash(refreshToken.getTokenHash()))
+        .thenReturn(Optional.of(refreshToken));
+    when(refreshTokenRepository.deleteTokenById(refreshToken.getId())).thenReturn(1);
+
+    JwtDto jwtDto = refreshTokenService.refresh(token);
+
+    assertNotNull(jwtDto.getRefreshToken());
+    assertNotEquals(token, jwtDto.getRefreshToken());
+    verify(refreshTokenRepository, times(1)).deleteTokenById(refreshToken.getId());
+  }
+
+  @Test
+  public void testRefreshUnknownToken() {
+    when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+    ResponseStatusException exception =
+        assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh("unknown"));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+  }
+
+  @Test
+  public void testRefreshAlreadyUsedToken() {
+    RefreshToken refreshToken = new RefreshToken();
+    refreshToken.setId(UUID.randomUUID());
+    refreshToken.setExpiresAt(OffsetDateTime.now().plusDays(1));
+    when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+    when(refreshTokenRepository.deleteTokenById(refreshToken.getId())).thenReturn(0);
+
+    assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh("used"));
+    verify(jwtService, never()).getNewJwtToken(any());
+  }
+
+  @Test
+  public void testRefreshExpiredToken() {
+    RefreshToken refreshToken = new RefreshToken();
+    refreshToken.setId(UUID.randomUUID());
+    refreshToken.setExpiresAt(OffsetDateTime.now().minusSeconds(1));
+    when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+    when(refreshTokenRepository.deleteTokenById(refreshToken.getId())).thenReturn(1);
+
+    assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh("expired"));
+    verify(jwtService, never()).getNewJwtToken(any());
+  }
+}
@@ -12,15 +12,12 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import tabletop.gather.backend.comment.*;
-import tabletop.gather.backend.jwt.JwtService;
 import tabletop.gather.backend.user.UserDto;
 
 public class CommentResourceTest {
 
   @Mock private CommentService commentService;
 
-  @Mock private JwtService jwtService;
-
   @InjectMocks private CommentResource commentResource;
 
   @BeforeEach
@@ -34,7 +31,8 @@ public class CommentResourceTest {
     List<CommentItemDto> comments = new ArrayList<>();
     when(commentService.findByPlanId(planId)).thenReturn(comments);
 
-    ResponseEntity<List<CommentItemDto>> response = commentResource.getCommentsByPlanId(planId);
+    ResponseEntity<List<CommentItemDto>> response =
+        commentResource.getCommentsByPlanId(null, planId);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(comments, response.getBody());
@@ -46,10 +44,9 @@ public class CommentResourceTest {
     UserDto user = new UserDto();
     user.setId(userId);
     CreateCommentDto commentDto = new CreateCommentDto();
-    when(jwtService.getUserByToken("token")).thenReturn(user);
     when(commentService.create(commentDto, userId)).thenReturn(userId);
 
-    ResponseEntity<UUID> response = commentResource.createComment("token", commentDto);
+    ResponseEntity<UUID> response = commentResource.createComment(user, commentDto);
 
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     assertEquals(userId, response.getBody());
@@ -62,9 +59,8 @@ public class CommentResourceTest {
     UserDto user = new UserDto();
     user.setId(userId);
     UpdateCommentDto commentDto = new UpdateCommentDto();
-    when(jwtService.getUserByToken("token")).thenReturn(user);
 
-    ResponseEntity<UUID> response = commentResource.updateComment("token", commentId, commentDto);
+    ResponseEntity<UUID> response = commentResource.updateComment(user, commentId, commentDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(commentId, response.getBody());
@@ -76,9 +72,8 @@ public class CommentResourceTest {
     UUID userId = UUID.randomUUID();
     UserDto user = new UserDto();
     user.setId(userId);
-    when(jwtService.getUserByToken("token")).thenReturn(user);
 
-    ResponseEntity<Void> response = commentResource.deleteComment("token", commentId);
+    ResponseEntity<Void> response = commentResource.deleteComment(user, commentId);
 
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
   }
@@ -1,8 +1,10 @@
 package tabletop.gather.backend.unit.comment;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import java.time.OffsetDateTime;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,7 @@ import tabletop.gather.backend.plan.Plan;
 import tabletop.gather.backend.plan.PlanRepository;
 import tabletop.gather.backend.user.User;
 import tabletop.gather.backend.user.UserRepository;
+import tabletop.gather.backend.util.NotFoundException;
 
 public class CommentServiceTest {
 
@@ -45,23 +48,28 @@ public class CommentServiceTest {
   @Test
   public void testFindByPlanId() {
     UUID planId = UUID.randomUUID();
-    User user = new User();
-    user.setId(UUID.randomUUID());
-    user.setFirstName("first");
-    user.setLastName("last");
-    Comment comment1 = new Comment();
-    comment1.setUser(user);
-    Comment comment2 = new Comment();
-    comment2.setUser(user);
-    when(commentRepository.findByPlanId(any(), any()))
-        .thenReturn(Arrays.asList(comment1, comment2));
-    when(planRepository.findById(planId)).thenReturn(Optional.of(new Plan()));
+    OffsetDateTime now = OffsetDateTime.now();
+    when(commentRepository.findItemsByPlanId(planId))
+        .thenReturn(
+            Arrays.asList(
+                new CommentItemProjection(UUID.randomUUID(), "one", "first", "last", now),
+                new CommentItemProjection(UUID.randomUUID(), "two", "first", "last", now)));
+    when(planRepository.existsById(planId)).thenReturn(true);
 
     List<CommentItemDto> response = commentService.findByPlanId(planId);
 
     assertEquals(2, response.size());
     assertEquals("first last", response.get(0).getUser());
-    //
+    assertEquals("one", response.get(0).getComment());
+  }
+
+  @Test
+  public void testFindByPlanIdPlanNotFound() {
+    UUID planId = UUID.randomUUID();
+    when(planRepository.existsById(planId)).thenReturn(false);
+
+    assertThrows(NotFoundException.class, () -> commentService.findByPlanId(planId));
+    verify(commentRepository, never()).findItemsByPlanId(any());
   }
 
   @Test
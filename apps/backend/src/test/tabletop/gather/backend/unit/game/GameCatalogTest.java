@@ -0,0 +1,79 @@
+package tabletop.gather.backend.unit.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import tabletop.gather.backend.game.GameCatalog;
+import tabletop.gather.backend.game.GameName;
+import tabletop.gather.backend.game.GameRepository;
+import tabletop.gather.backend.util.EntityVersion;
+
+public class GameCatalogTest {
+
+  private final OffsetDateTime now = OffsetDateTime.now();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock private GameRepository gameRepository;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(gameRepository.findCatalogVersion()).thenReturn(new EntityVersion(now, 1L));
+    when(gameRepository.findAllNamedBy(any(Sort.class)))
+        .thenReturn(List.of(new GameName(UUID.randomUUID(), "Catan")));
+  }
+
+  @Test
+  public void testBuildOnStartup() {
+    GameCatalog gameCatalog = new GameCatalog(gameRepository, 10, meterRegistry);
+
+    gameCatalog.afterPropertiesSet();
+
+    assertEquals(
+        1,
+        gameCatalog
+            .getSearchIndex()
+            .orElseThrow()
+            .search("cat", PageRequest.of(0, 20))
+            .getNumberOfElements());
+    assertEquals(1, meterRegistry.get("games.search.index.games").gauge().value());
+    assertTrue(meterRegistry.get("games.search.index.size").gauge().value() > 0);
+  }
+
+  @Test
+  public void testRefreshRebuildsOnlyWhenChanged() {
+    GameCatalog gameCatalog = new GameCatalog(gameRepository, 10, meterRegistry);
+    gameCatalog.afterPropertiesSet();
+
+    gameCatalog.refresh();
+    verify(gameRepository, times(1)).findAllNamedBy(Sort.by("name", "id"));
+
+    when(gameRepository.findCatalogVersion()).thenReturn(new EntityVersion(now, 2L));
+    gameCatalog.refresh();
+    verify(gameRepository, times(2)).findAllNamedBy(Sort.by("name", "id"));
+  }
+
+  @Test
+  public void testLargeCatalogIsNotIndexed() {
+    when(gameRepository.findCatalogVersion()).thenReturn(new EntityVersion(now, 11L));
+    GameCatalog gameCatalog = new GameCatalog(gameRepository, 10, meterRegistry);
+
+    gameCatalog.afterPropertiesSet();
+
+    assertTrue(gameCatalog.getSearchIndex().isEmpty());
+    assertEquals(0, meterRegistry.get("games.search.index.size").gauge().value());
+    verify(gameRepository, never()).findAllNamedBy(any(Sort.class));
+  }
+}
@@ -0,0 +1,284 @@
+package tabletop.gather.backend.unit.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import tabletop.gather.backend.game.GameCatalog;
+import tabletop.gather.backend.game.GameImportResult;
+import tabletop.gather.backend.game.GameImportService;
+
+public class GameImportServiceTest {
+
+  private final UUID catan = UUID.randomUUID();
+  private final UUID azul = UUID.randomUUID();
+  private final UUID carcassonne = UUID.randomUUID();
+
+  private final List<List<Object[]>> batches = new ArrayList<>();
+
+  private Set<UUID> known = Set.of();
+
+  @TempDir private Path directory;
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Mock private GameCatalog gameCatalog;
+
+  private GameImportService gameImportService;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    gameImportService =
+        new GameImportService(jdbcTemplate, new ObjectMapper(), gameCatalog, 2, "tabletop-gather");
+
+    // Runs the setter against a fake connection, inserting the games not known yet
+    when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+        .thenAnswer(
+            invocation -> {
+              final List<Object[]> columns = new ArrayList<>();
+              final Connection connection = mock(Connection.class);
+              when(connection.createArrayOf(anyString(), any(Object[].class)))
+                  .thenAnswer(
+                      create -> {
+                        columns.add(create.getArgument(1));
+                        return null;
+                      });
+              final PreparedStatement statement = mock(PreparedStatement.class);
+              when(statement.getConnection()).thenReturn(connection);
+              invocation.<PreparedStatementSetter>getArgument(1).setValues(statement);
+              batches.add(columns);
+              return (int) Arrays.stream(columns.get(0)).filter(id -> !known.contains(id)).count();
+            });
+  }
+
+  @Test
+  public void testImportCsv() throws IOException {
+    final String csv =
+        "id,name,description,min_player,max_player,image_url\r\n"
+            + catan
+            + ",Catan,\"Trade, build\r\nand settle\",3,4,https://example.com/catan.png\r\n"
+            + azul
+            + ",\"Azul \"\"Summer\"\"\",,2,,\r\n"
+            + "\r\n"
+            + carcassonne
+            + ",Carcassonne,Tiles,2,5,\r\n";
+
+    final GameImportResult result = gameImportService.importCsv(new StringReader(csv));
+
+    assertEquals(3, result.read());
+    assertEquals(3, result.inserted());
+    assertEquals(0, result.skipped());
+    assertEquals(0, result.rejected());
+    assertEquals(2, batches.size());
+    assertArrayEquals(new Object[] {catan, azul}, batches.get(0).get(0));
+    assertArrayEquals(new Object[] {"Catan", "Azul \"Summer\""}, batches.get(0).get(1));
+    assertArrayEquals(new Object[] {"Trade, build\r\nand settle", null}, batches.get(0).get(2));
+    assertArrayEquals(new Object[] {3, 2}, batches.get(0).get(3));
+    assertArrayEquals(new Object[] {4, null}, batches.get(0).get(4));
+    assertArrayEquals(new Object[] {carcassonne}, batches.get(1).get(0));
+    verify(jdbcTemplate, times(2))
+        .update(eq(insertInto("tabletop-gather")), any(PreparedStatementSetter.class));
+    verify(gameCatalog).rebuild();
+  }
+
+  @Test
+  public void testImportCsvMapsColumnsByHeader() throws IOException {
+    final String csv = "minPlayer,Name,ID\n2," + "Azul," + azul + "\n";
+
+    final GameImportResult result = gameImportService.importCsv(new StringReader(csv));
+
+    assertEquals(1, result.inserted());
+    assertArrayEquals(new Object[] {azul}, batches.get(0).get(0));
+    assertArrayEquals(new Object[] {"Azul"}, batches.get(0).get(1));
+    assertArrayEquals(new Object[] {2}, batches.get(0).get(3));
+  }
+
+  @Test
+  public void testImportCsvSkipsByteOrderMark() throws IOException {
+    final Path file = directory.resolve("games.csv");
+    Files.writeString(file, "\uFEFFid,name,min_player\n" + catan + ",Catan,3\n");
+
+    final GameImportResult result = gameImportService.importFile(file);
+
+    assertEquals(1, result.inserted());
+    assertEquals(0, result.rejected());
+  }
+
+  @Test
+  public void testImportCsvRejectsHeaderWithoutRequiredColumns() {
+    final IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                gameImportService.importCsv(
+                    new StringReader("game,players\n" + catan + ",3\n" + azul + ",2\n")));
+
+    assertEquals("catalog dump lacks the columns [id, name, minplayer]", exception.getMessage());
+    verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+  }
+
+  @Test
+  public void testImportCsvReadsMaxPlayerZeroAsNoLimit() throws IOException {
+    final String csv = "id,name,min_player,max_player\n" + catan + ",Catan,3,0\n";
+
+    final GameImportResult result = gameImportService.importCsv(new StringReader(csv));
+
+    assertEquals(1, result.inserted());
+    assertEquals(0, result.rejected());
+    assertArrayEquals(new Object[] {null}, batches.get(0).get(4));
+  }
+
+  @Test
+  public void testImportCsvRejectsInvalidRecords() throws IOException {
+    final String csv =
+        "id,name,min_player,max_player\n"
+            + "not-a-uuid,Catan,3,4\n"
+            + azul
+            + ",,2,4\n"
+            + carcassonne
+            + ",Carcassonne,two,5\n"
+            + UUID.randomUUID()
+            + ",Twilight Imperium,6,3\n"
+            + catan
+            + ",Catan,3,4\n";
+
+    final GameImportResult result = gameImportService.importCsv(new StringReader(csv));
+
+    assertEquals(5, result.read());
+    assertEquals(1, result.inserted());
+    assertEquals(4, result.rejected());
+    assertArrayEquals(new Object[] {catan}, batches.get(0).get(0));
+  }
+
+  @Test
+  public void testImportJsonLines() throws IOException {
+    final Path file = directory.resolve("games.jsonl");
+    Files.writeString(
+        file,
+        "{\"id\":\""
+            + catan
+            + "\",\"name\":\"Catan\",\"minPlayer\":3,\"maxPlayer\":4,\"rating\":7.1}\n"
+            + "\n"
+            + "{\"id\":\""
+            + azul
+            + "\",\"name\":\"Azul\",\"minPlayer\":2}\n"
+            + "{\"id\":\n");
+
+    final GameImportResult result = gameImportService.importFile(file);
+
+    assertEquals(3, result.read());
+    assertEquals(2, result.inserted());
+    assertEquals(1, result.rejected());
+    assertArrayEquals(new Object[] {catan, azul}, batches.get(0).get(0));
+    assertArrayEquals(new Object[] {4, null}, batches.get(0).get(4));
+  }
+
+  @Test
+  public void testImportJsonLinesRejectsNull() throws IOException {
+    final String jsonLines =
+        "null\n" + "{\"id\":\"" + catan + "\",\"name\":\"Catan\",\"minPlayer\":3}\n";
+
+    final GameImportResult result =
+        gameImportService.importJsonLines(new BufferedReader(new StringReader(jsonLines)));
+
+    assertEquals(2, result.read());
+    assertEquals(1, result.inserted());
+    assertEquals(1, result.rejected());
+  }
+
+  @Test
+  public void testImportJsonLinesSkipsByteOrderMark() throws IOException {
+    final String jsonLines =
+        "\uFEFF{\"id\":\"" + catan + "\",\"name\":\"Catan\",\"minPlayer\":3}\n";
+
+    final GameImportResult result =
+        gameImportService.importJsonLines(new BufferedReader(new StringReader(jsonLines)));
+
+    assertEquals(1, result.inserted());
+    assertEquals(0, result.rejected());
+  }
+
+  @Test
+  public void testImportSkipsKnownGames() throws IOException {
+    known = Set.of(catan, azul);
+    final Path file = directory.resolve("games.csv");
+    Files.writeString(
+        file,
+        "id,name,min_player\n"
+            + catan
+            + ",Catan,3\n"
+            + azul
+            + ",Azul,2\n"
+            + carcassonne
+            + ",Carcassonne,2\n");
+
+    final GameImportResult result = gameImportService.importFile(file);
+
+    assertEquals(3, result.read());
+    assertEquals(1, result.inserted());
+    assertEquals(2, result.skipped());
+    verify(gameCatalog).rebuild();
+  }
+
+  @Test
+  public void testImportOfKnownGamesKeepsIndex() throws IOException {
+    known = Set.of(catan);
+
+    final GameImportResult result =
+        gameImportService.importCsv(new StringReader("id,name,min_player\n" + catan + ",Catan,3"));
+
+    assertEquals(0, result.inserted());
+    assertEquals(1, result.skipped());
+    verify(gameCatalog, never()).rebuild();
+  }
+
+  @Test
+  public void testImportEmptyFile() throws IOException {
+    final GameImportResult result = gameImportService.importCsv(new StringReader(""));
+
+    assertEquals(0, result.read());
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  public void testImportRejectsUnknownFormat() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> gameImportService.importFile(directory.resolve("games.xml")));
+  }
+
+  private static String insertInto(final String schema) {
+    return """
+        insert into "%s".games
+          (id, name, description, min_player, max_player, image_url, date_created, last_updated)
+        select game.*, now(), now()
+        from unnest(?::uuid[], ?::varchar[], ?::text[], ?::int[], ?::int[], ?::varchar[])
+          as game (id, name, description, min_player, max_player, image_url)
+        on conflict (id) do nothing
+        """
+        .formatted(schema);
+  }
+}
@@ -1,11 +1,14 @@
 package tabletop.gather.backend.unit.game;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,11 +16,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import tabletop.gather.backend.game.*;
 import tabletop.gather.backend.jwt.*;
 import tabletop.gather.backend.user.UserDto;
+import tabletop.gather.backend.util.EntityVersion;
 
 public class GameResourceTest {
 
@@ -25,8 +31,6 @@ public class GameResourceTest {
 
   @Mock private GameService gameService;
 
-  @Mock private JwtService jwtService;
-
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -35,19 +39,56 @@ public class GameResourceTest {
   @Test
   public void testGetAllGames() {
     String name = "game";
-    Pageable pageable = PageRequest.of(0, 20, Sort.by("name"));
+    Pageable pageable = PageRequest.of(0, 20);
 
     List<GameDto> gameDtos = Arrays.asList(new GameDto());
-    Page<GameDto> gameDtoPage = new PageImpl<>(gameDtos, pageable, gameDtos.size());
+    Slice<GameDto> gameDtoSlice = new SliceImpl<>(gameDtos, pageable, false);
 
-    when(gameService.findByName(name, pageable)).thenReturn(gameDtoPage);
+    when(gameService.findByName(name, pageable)).thenReturn(gameDtoSlice);
 
-    ResponseEntity<Page<GameDto>> response = gameResource.getAllGames(name, 0, 20);
+    ResponseEntity<Slice<GameDto>> response = gameResource.getAllGames(name, null, 0, 20);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(gameDtos, response.getBody().getContent());
   }
 
+  @Test
+  public void testGetAllGamesWithCursor() {
+    GameDto gameDto = new GameDto();
+    gameDto.setId(UUID.randomUUID());
+    gameDto.setName("Catan");
+    when(gameService.findAfter("", 1))
+        .thenReturn(new SliceImpl<>(List.of(gameDto), PageRequest.of(0, 1), true));
+
+    ResponseEntity<Slice<GameDto>> response = gameResource.getAllGames(null, "", 0, 1);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    String next = new GameCursor("Catan", gameDto.getId()).encode();
+    assertEquals(
+        "</api/games?cursor=" + next + "&pageSize=1>; rel=\"next\"",
+        response.getHeaders().getFirst(HttpHeaders.LINK));
+  }
+
+  @Test
+  public void testGetAllGamesWithCursorOnLastSlice() {
+    when(gameService.findAfter("", 20))
+        .thenReturn(new SliceImpl<>(List.of(new GameDto()), PageRequest.of(0, 20), false));
+
+    ResponseEntity<Slice<GameDto>> response = gameResource.getAllGames("", "", 0, 20);
+
+    assertFalse(response.getHeaders().containsKey(HttpHeaders.LINK));
+  }
+
+  @Test
+  public void testGetAllGamesWithCursorAndName() {
+    ResponseStatusException exception =
+        assertThrows(
+            ResponseStatusException.class, () -> gameResource.getAllGames("cat", "", 0, 20));
+
+    assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    verifyNoInteractions(gameService);
+  }
+
   @Test
   public void testGetGamesByUser() {
     UUID userId = UUID.randomUUID();
@@ -62,13 +103,10 @@ public class GameResourceTest {
 
   @Test
   public void testGetMyGames() {
-    String token = "token";
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
     GameDto gameDto = new GameDto();
-
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
     when(gameService.findByUserId(userId)).thenReturn(Arrays.asList(gameDto));
 
     ResponseEntity<List<GameDto>> response = gameResource.getGamesByUser(userId);
@@ -83,9 +121,24 @@ public class GameResourceTest {
     GameDto gameDto = new GameDto();
     when(gameService.get(gameId)).thenReturn(gameDto);
 
-    ResponseEntity<GameDto> response = gameResource.getGame(gameId);
+    ResponseEntity<GameDto> response = gameResource.getGame(null, gameId);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(gameDto, response.getBody());
+  }
+
+  @Test
+  public void testGetGameWithETag() {
+    UUID gameId = UUID.randomUUID();
+    GameDto gameDto = new GameDto();
+    EntityVersion version = new EntityVersion(OffsetDateTime.now(), 1L);
+    when(gameService.getVersion(gameId)).thenReturn(Optional.of(version));
+    when(gameService.get(gameId)).thenReturn(gameDto);
+
+    ResponseEntity<GameDto> response = gameResource.getGame("W/\"other\"", gameId);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(version.toETag(), response.getHeaders().getETag());
     assertEquals(gameDto, response.getBody());
   }
 
@@ -107,9 +160,8 @@ public class GameResourceTest {
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(anyString())).thenReturn(userDto);
 
-    ResponseEntity<Void> response = gameResource.addGameToUser("Bearer testToken", gameId);
+    ResponseEntity<Void> response = gameResource.addGameToUser(userDto, gameId);
 
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     verify(gameService, times(1)).addUser(gameId, userId);
@@ -121,9 +173,8 @@ public class GameResourceTest {
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(anyString())).thenReturn(userDto);
 
-    ResponseEntity<Void> response = gameResource.removeGameFromUser("Bearer testToken", gameId);
+    ResponseEntity<Void> response = gameResource.removeGameFromUser(userDto, gameId);
 
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
     verify(gameService, times(1)).removeUser(gameId, userId);
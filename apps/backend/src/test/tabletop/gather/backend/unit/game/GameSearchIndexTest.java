@@ -0,0 +1,117 @@
+package tabletop.gather.backend.unit.game;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import tabletop.gather.backend.game.GameCursor;
+import tabletop.gather.backend.game.GameName;
+import tabletop.gather.backend.game.GameSearchIndex;
+
+public class GameSearchIndexTest {
+
+  private final Map<UUID, String> names = new HashMap<>();
+
+  private final GameSearchIndex index =
+      GameSearchIndex.of(
+          List.of(
+              game("Carcassonne"),
+              game("Catan"),
+              game("Catan: Seafarers"),
+              game("Die Siedler von Catan"),
+              game("Scattered"),
+              game("Ticket to Ride")));
+
+  @Test
+  public void testSearchIgnoresCase() {
+    assertEquals(
+        List.of("Catan", "Catan: Seafarers", "Die Siedler von Catan"),
+        names(index.search(" CATAN ", PageRequest.of(0, 20))));
+  }
+
+  @Test
+  public void testSearchRanksBySimilarity() {
+    assertEquals(
+        List.of("Catan", "Catan: Seafarers", "Die Siedler von Catan", "Scattered"),
+        names(index.search("cat", PageRequest.of(0, 20))));
+  }
+
+  @Test
+  public void testSearchMatchesWithinWords() {
+    assertEquals(List.of("Scattered"), names(index.search("atter", PageRequest.of(0, 20))));
+    assertEquals(List.of("Ticket to Ride"), names(index.search("t to r", PageRequest.of(0, 20))));
+    assertEquals(List.of(), names(index.search("catn", PageRequest.of(0, 20))));
+  }
+
+  @Test
+  public void testSearchShortTerm() {
+    assertEquals(
+        List.of("Carcassonne", "Catan", "Catan: Seafarers", "Die Siedler von Catan", "Scattered"),
+        names(index.search("ca", PageRequest.of(0, 20))).stream().sorted().toList());
+    assertEquals(6, index.search("", PageRequest.of(0, 20)).getNumberOfElements());
+  }
+
+  @Test
+  public void testSearchPages() {
+    Slice<UUID> first = index.search("catan", PageRequest.of(0, 2));
+    Slice<UUID> second = index.search("catan", PageRequest.of(1, 2));
+
+    assertEquals(List.of("Catan", "Catan: Seafarers"), names(first));
+    assertTrue(first.hasNext());
+    assertEquals(List.of("Die Siedler von Catan"), names(second));
+    assertFalse(second.hasNext());
+  }
+
+  @Test
+  public void testFindAllKeepsCatalogOrder() {
+    Slice<UUID> page = index.findAll(PageRequest.of(1, 4));
+
+    assertEquals(List.of("Scattered", "Ticket to Ride"), names(page));
+    assertFalse(page.hasNext());
+    assertTrue(index.findAll(PageRequest.of(5, 4)).getContent().isEmpty());
+  }
+
+  @Test
+  public void testFindAfter() {
+    UUID catan = index.search("catan", PageRequest.of(0, 1)).getContent().get(0);
+
+    Slice<UUID> page =
+        index.findAfter(new GameCursor("Catan", catan), PageRequest.of(0, 2)).orElseThrow();
+
+    assertEquals(List.of("Catan: Seafarers", "Die Siedler von Catan"), names(page));
+    assertTrue(page.hasNext());
+    assertTrue(
+        index
+            .findAfter(new GameCursor("Catan", UUID.randomUUID()), PageRequest.of(0, 2))
+            .isEmpty());
+    assertTrue(index.findAfter(new GameCursor("Renamed", catan), PageRequest.of(0, 2)).isEmpty());
+  }
+
+  @Test
+  public void testLargeCatalog() {
+    GameSearchIndex large =
+        GameSearchIndex.of(IntStream.range(0, 10_000).mapToObj(i -> game("Game " + i)).toList());
+
+    assertEquals(10_000, large.size());
+    assertEquals(List.of("Game 4711"), names(large.search("game 4711", PageRequest.of(0, 20))));
+    assertEquals(11, large.search("e 471", PageRequest.of(0, 20)).getNumberOfElements());
+    assertTrue(large.estimatedSize() > 10_000 * 100L);
+    assertTrue(large.estimatedSize() < 10_000 * 1_000L);
+  }
+
+  private GameName game(final String name) {
+    GameName game = new GameName(UUID.randomUUID(), name);
+    names.put(game.id(), name);
+    return game;
+  }
+
+  private List<String> names(final Slice<UUID> ids) {
+    return ids.getContent().stream().map(names::get).toList();
+  }
+}
@@ -1,6 +1,8 @@
 package tabletop.gather.backend.unit.game;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
@@ -12,12 +14,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.*;
+import org.springframework.web.server.ResponseStatusException;
 import tabletop.gather.backend.game.*;
-import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringAttendance;
 import tabletop.gather.backend.gathering.GatheringRepository;
-import tabletop.gather.backend.plan.Plan;
 import tabletop.gather.backend.plan.PlanRepository;
 import tabletop.gather.backend.user.*;
+import tabletop.gather.backend.util.NotFoundException;
 
 public class GameServiceTest {
 
@@ -31,6 +34,8 @@ public class GameServiceTest {
 
   @Mock private PlanRepository planRepository;
 
+  @Mock private GameCatalog gameCatalog;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -39,16 +44,101 @@ public class GameServiceTest {
   @Test
   public void testFindByUserId() {
     String name = "game";
-    Pageable pageable = PageRequest.of(0, 20, Sort.by("name"));
+    Pageable pageable = PageRequest.of(0, 20);
 
-    List<Game> games = Arrays.asList(new Game());
-    Page<Game> gamePage = new PageImpl<>(games, pageable, games.size());
+    List<GameProjection> games =
+        Arrays.asList(new GameProjection(UUID.randomUUID(), name, "description", 2, 4, null));
+    Slice<GameProjection> gameSlice = new SliceImpl<>(games, pageable, false);
 
-    when(gameRepository.findByNameContainingIgnoreCase(name, pageable)).thenReturn(gamePage);
+    when(gameRepository.searchByName("%" + name + "%", name, pageable)).thenReturn(gameSlice);
 
-    Page<GameDto> response = gameService.findByName(name, pageable);
+    Slice<GameDto> response = gameService.findByName(" " + name + " ", pageable);
 
     assertEquals(1, response.getContent().size());
+    assertEquals(name, response.getContent().get(0).getName());
+  }
+
+  @Test
+  public void testFindByNameEscapesLikeWildcards() {
+    Pageable pageable = PageRequest.of(0, 20);
+    when(gameRepository.searchByName(anyString(), anyString(), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+    gameService.findByName("100%_\\", pageable);
+
+    verify(gameRepository, times(1)).searchByName("%100\\%\\_\\\\%", "100%_\\", pageable);
+  }
+
+  @Test
+  public void testFindByNameWithoutName() {
+    Pageable pageable = PageRequest.of(1, 20);
+    when(gameRepository.findProjectedBy(any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+    gameService.findByName("", pageable);
+
+    verify(gameRepository, times(1)).findProjectedBy(PageRequest.of(1, 20, Sort.by("name", "id")));
+    verify(gameRepository, never()).searchByName(anyString(), anyString(), any(Pageable.class));
+  }
+
+  @Test
+  public void testFindByNameFromSearchIndex() {
+    Pageable pageable = PageRequest.of(0, 20);
+    GameProjection game = new GameProjection(UUID.randomUUID(), "Catan", null, 3, 4, null);
+    when(gameCatalog.getSearchIndex())
+        .thenReturn(Optional.of(GameSearchIndex.of(List.of(new GameName(game.id(), game.name())))));
+    when(gameRepository.findProjectedByIdIn(List.of(game.id()))).thenReturn(List.of(game));
+
+    Slice<GameDto> response = gameService.findByName("cat", pageable);
+
+    assertEquals(game.id(), response.getContent().get(0).getId());
+    verify(gameRepository, never()).searchByName(anyString(), anyString(), any(Pageable.class));
+  }
+
+  @Test
+  public void testFindByNameLeavesOutGamesDeletedSinceIndexing() {
+    GameName deleted = new GameName(UUID.randomUUID(), "Catan");
+    when(gameCatalog.getSearchIndex())
+        .thenReturn(Optional.of(GameSearchIndex.of(List.of(deleted))));
+    when(gameRepository.findProjectedByIdIn(List.of(deleted.id()))).thenReturn(List.of());
+
+    Slice<GameDto> response = gameService.findByName("cat", PageRequest.of(0, 20));
+
+    assertTrue(response.getContent().isEmpty());
+  }
+
+  @Test
+  public void testFindAfterFromSearchIndex() {
+    GameName first = new GameName(UUID.randomUUID(), "Carcassonne");
+    GameProjection second = new GameProjection(UUID.randomUUID(), "Catan", null, 3, 4, null);
+    when(gameCatalog.getSearchIndex())
+        .thenReturn(
+            Optional.of(
+                GameSearchIndex.of(List.of(first, new GameName(second.id(), second.name())))));
+    when(gameRepository.findProjectedByIdIn(List.of(second.id()))).thenReturn(List.of(second));
+
+    Slice<GameDto> response =
+        gameService.findAfter(new GameCursor(first.name(), first.id()).encode(), 20);
+
+    assertEquals(second.id(), response.getContent().get(0).getId());
+    verify(gameRepository, never())
+        .findProjectedAfter(anyString(), any(UUID.class), any(Pageable.class));
+  }
+
+  @Test
+  public void testFindAfterFromDatabase() {
+    UUID id = UUID.randomUUID();
+    when(gameRepository.findProjectedAfter(anyString(), any(UUID.class), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false));
+
+    gameService.findAfter(new GameCursor("Catan", id).encode(), 20);
+
+    verify(gameRepository, times(1)).findProjectedAfter("Catan", id, PageRequest.of(0, 20));
+  }
+
+  @Test
+  public void testFindAfterInvalidCursor() {
+    assertThrows(ResponseStatusException.class, () -> gameService.findAfter("not a cursor", 20));
   }
 
   @Test
@@ -58,8 +148,9 @@ public class GameServiceTest {
     user.setId(userId);
     when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-    Game game = new Game();
-    when(gameRepository.findByUsers_Id(userId, Sort.by("name"))).thenReturn(Arrays.asList(game));
+    GameProjection game = new GameProjection(UUID.randomUUID(), "game", null, 1, 2, null);
+    when(gameRepository.findProjectedByUsers_Id(userId, Sort.by("name")))
+        .thenReturn(Arrays.asList(game));
 
     List<GameDto> response = gameService.findByUserId(userId);
 
@@ -81,51 +172,73 @@ public class GameServiceTest {
   @Test
   public void testFindByAttendingOnPlan() {
     UUID planId = UUID.randomUUID();
-    Gathering gathering = new Gathering();
-    gathering.setDate(LocalDate.now());
-    gathering.setStartTime(LocalTime.now());
+    UUID alice = UUID.randomUUID();
+    UUID bob = UUID.randomUUID();
+    UUID solo = UUID.randomUUID();
+    UUID pair = UUID.randomUUID();
+    UUID empty = UUID.randomUUID();
+    LocalDate date = LocalDate.now();
+    LocalTime startTime = LocalTime.now();
+    GameOwnership aliceGame1 = ownership(alice, "Alice A", "game1", 1, 5);
+    GameOwnership aliceGame2 = ownership(alice, "Alice A", "game2", 2, null);
+    GameOwnership bobGame2 =
+        new GameOwnership(bob, "Bob B", aliceGame2.id(), "game2", null, 2, null, null);
+
+    when(planRepository.existsById(planId)).thenReturn(true);
+    when(gameRepository.findOwnershipsByPlanId(planId))
+        .thenReturn(List.of(aliceGame1, aliceGame2, bobGame2));
+    when(gatheringRepository.findAttendanceByPlanId(planId))
+        .thenReturn(
+            List.of(
+                new GatheringAttendance(solo, date, startTime, alice),
+                new GatheringAttendance(pair, date.plusDays(1), startTime, alice),
+                new GatheringAttendance(pair, date.plusDays(1), startTime, bob),
+                new GatheringAttendance(empty, date.plusDays(2), startTime, null)));
 
-    User user = new User();
-    user.setId(UUID.randomUUID());
-    user.setFirstName("Test");
-    user.setLastName("User");
-    List<User> users = new ArrayList<>();
-    users.add(user);
-
-    Game game1 = new Game();
-    game1.setId(UUID.randomUUID());
-    game1.setMinPlayer(1);
-    game1.setMaxPlayer(5);
-    game1.setUsers(new HashSet<>(users));
-
-    Game game2 = new Game();
-    game2.setId(UUID.randomUUID());
-    game2.setMinPlayer(2);
-    game2.setMaxPlayer(5);
-    game2.setUsers(new HashSet<>(users));
-
-    gathering.setUsers(new HashSet<>(users));
-
-    when(planRepository.findById(planId)).thenReturn(Optional.of(new Plan()));
-    when(gatheringRepository.findAllByPlanId(planId, Sort.by("date")))
-        .thenReturn(Arrays.asList(gathering));
-    when(gameRepository.findByUsersGatheringsPlanId(planId)).thenReturn(Arrays.asList(game1));
+    List<GamePlanDto> response = gameService.findByAttendingOnPlan(planId);
+
+    assertEquals(3, response.size());
+    assertEquals(date, response.get(0).getGatheringDto().getDate());
+    assertEquals(startTime, response.get(0).getGatheringDto().getStartTime());
+    assertEquals(1, response.get(0).getGames().size()); // game2 needs two players
+    assertEquals(aliceGame1.id(), response.get(0).getGames().get(0).getId());
+    assertEquals(List.of("Alice A"), response.get(0).getGames().get(0).getOwners());
+    assertEquals(2, response.get(1).getGames().size());
+    assertEquals(List.of("Alice A", "Bob B"), response.get(1).getGames().get(1).getOwners());
+    assertEquals(0, response.get(2).getGames().size());
+
+    verify(gameRepository, times(1)).findOwnershipsByPlanId(planId);
+    verify(gatheringRepository, times(1)).findAttendanceByPlanId(planId);
+  }
+
+  @Test
+  public void testFindByAttendingOnPlanSkipsOwnersNoLongerAttending() {
+    UUID planId = UUID.randomUUID();
+    UUID alice = UUID.randomUUID();
+    GameOwnership aliceGame = ownership(alice, "Alice A", "game1", 1, 5);
+    GameOwnership leftGame = ownership(UUID.randomUUID(), "Bob B", "game2", 1, 5);
+
+    when(planRepository.existsById(planId)).thenReturn(true);
+    when(gameRepository.findOwnershipsByPlanId(planId)).thenReturn(List.of(aliceGame, leftGame));
+    when(gatheringRepository.findAttendanceByPlanId(planId))
+        .thenReturn(
+            List.of(
+                new GatheringAttendance(
+                    UUID.randomUUID(), LocalDate.now(), LocalTime.now(), alice)));
 
     List<GamePlanDto> response = gameService.findByAttendingOnPlan(planId);
 
-    assertEquals(1, response.size());
-    assertEquals(gathering.getDate(), response.get(0).getGatheringDto().getDate());
-    assertEquals(gathering.getStartTime(), response.get(0).getGatheringDto().getStartTime());
-    assertEquals(1, response.get(0).getGames().size()); // game2 is filtered out
-    assertEquals(game1.getId(), response.get(0).getGames().get(0).getId());
-    assertEquals(1, response.get(0).getGames().get(0).getOwners().size());
-    assertEquals(
-        user.getFirstName() + " " + user.getLastName(),
-        response.get(0).getGames().get(0).getOwners().get(0));
+    assertEquals(1, response.get(0).getGames().size());
+    assertEquals(aliceGame.id(), response.get(0).getGames().get(0).getId());
+  }
 
-    verify(planRepository, times(1)).findById(planId);
-    verify(gatheringRepository, times(1)).findAllByPlanId(planId, Sort.by("date"));
-    verify(gameRepository, times(1)).findByUsersGatheringsPlanId(planId);
+  @Test
+  public void testFindByAttendingOnPlanNotFound() {
+    UUID planId = UUID.randomUUID();
+    when(planRepository.existsById(planId)).thenReturn(false);
+
+    assertThrows(NotFoundException.class, () -> gameService.findByAttendingOnPlan(planId));
+    verify(gameRepository, never()).findOwnershipsByPlanId(planId);
   }
 
   @Test
@@ -161,4 +274,10 @@ public class GameServiceTest {
 
     verify(gameRepository, times(1)).save(game);
   }
+
+  private GameOwnership ownership(
+      UUID ownerId, String ownerName, String name, int minPlayer, Integer maxPlayer) {
+    return new GameOwnership(
+        ownerId, ownerName, UUID.randomUUID(), name, null, minPlayer, maxPlayer, null);
+  }
 }
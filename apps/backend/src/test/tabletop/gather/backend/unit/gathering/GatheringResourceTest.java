@@ -22,8 +22,6 @@ public class GatheringResourceTest {
 
   @Mock private GatheringService gatheringService;
 
-  @Mock private JwtService jwtService;
-
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -31,18 +29,16 @@ public class GatheringResourceTest {
 
   @Test
   public void testAttendGathering() {
-    String token = "token";
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
 
     UpsertGatheringDto upsertGatheringDto = new UpsertGatheringDto();
     upsertGatheringDto.setId(UUID.randomUUID());
     upsertGatheringDto.setCanAttend(true);
 
     ResponseEntity<UUID> response =
-        gatheringResource.attendGathering(token, Arrays.asList(upsertGatheringDto));
+        gatheringResource.attendGathering(userDto, Arrays.asList(upsertGatheringDto));
 
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     verify(gatheringService, times(1)).removeAndAdd(anyList(), eq(userId));
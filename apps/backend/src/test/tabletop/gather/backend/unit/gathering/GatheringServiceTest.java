@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +28,8 @@ public class GatheringServiceTest {
 
   @Mock private UserRepository userRepository;
 
+  @Mock private PlanSummaryService planSummaryService;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -40,14 +43,19 @@ public class GatheringServiceTest {
     user.setGatherings(new HashSet<>());
     when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
+    Plan plan = new Plan();
+    plan.setId(UUID.randomUUID());
+
     UUID gatheringId1 = UUID.randomUUID();
     Gathering gathering1 = new Gathering();
     gathering1.setId(gatheringId1);
+    gathering1.setPlan(plan);
     gathering1.setUsers(new HashSet<>(Arrays.asList(user)));
 
     UUID gatheringId2 = UUID.randomUUID();
     Gathering gathering2 = new Gathering();
     gathering2.setId(gatheringId2);
+    gathering2.setPlan(plan);
     gathering2.setUsers(new HashSet<>(Arrays.asList(user)));
 
     when(gatheringRepository.findAllByUsers_Id(userId))
@@ -68,5 +76,6 @@ public class GatheringServiceTest {
 
     verify(gatheringRepository, times(2)).save(gathering1); // remove and add
     verify(gatheringRepository, times(1)).save(gathering2); // remove
+    verify(planSummaryService, times(1)).refresh(Set.of(plan.getId()));
   }
 }
@@ -0,0 +1,167 @@
+package tabletop.gather.backend.unit.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import tabletop.gather.backend.jwt.JwtClaimsContext;
+import tabletop.gather.backend.jwt.JwtKeyring;
+import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.jwt.TokenRevocationList;
+
+public class JwtKeyringTest {
+
+  private static final String SECRET_KEY =
+      "909912191940e298a1157bfdebb1f5f785daf15b93a1787b80350deab6cdce55";
+
+  @TempDir private Path keyring;
+
+  @Mock private UserDetails userDetails;
+
+  @Mock private TokenRevocationList tokenRevocationList;
+
+  @BeforeEach
+  public void init() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    when(userDetails.getUsername()).thenReturn("test");
+    writeKeyPair("2024-01");
+    writeKeyPair("2024-02");
+  }
+
+  @Test
+  public void testSignWithKeyId() {
+    JwtService jwtService = jwtService(new JwtKeyring("", keyring.toString(), "2024-01"));
+
+    String token = jwtService.generateToken(userDetails);
+
+    assertEquals(
+        "ES256", Jwts.parserBuilder().build().parse(unsigned(token)).getHeader().get("alg"));
+    assertEquals(
+        "2024-01", Jwts.parserBuilder().build().parse(unsigned(token)).getHeader().get("kid"));
+    assertEquals("test", jwtService.extractAllClaims(token).getSubject());
+  }
+
+  @Test
+  public void testRotationKeepsOldTokensValid() {
+    String oldToken =
+        jwtService(new JwtKeyring("", keyring.toString(), "2024-01")).generateToken(userDetails);
+
+    JwtService rotated = jwtService(new JwtKeyring("", keyring.toString(), "2024-02"));
+
+    Claims claims = rotated.extractAllClaims(oldToken);
+    assertEquals("test", claims.getSubject());
+    assertNotNull(rotated.extractAllClaims(rotated.generateToken(userDetails)));
+  }
+
+  @Test
+  public void testVerifyOnlyNode() throws IOException {
+    String token =
+        jwtService(new JwtKeyring("", keyring.toString(), "2024-01")).generateToken(userDetails);
+    Files.delete(keyring.resolve("2024-01.private.pem"));
+    Files.delete(keyring.resolve("2024-02.private.pem"));
+
+    JwtService verifier = jwtService(new JwtKeyring("", keyring.toString(), ""));
+
+    assertEquals("test", verifier.extractAllClaims(token).getSubject());
+    assertThrows(IllegalStateException.class, () -> verifier.generateToken(userDetails));
+  }
+
+  @Test
+  public void testSecretKeyFallback() {
+    String hmacToken = jwtService(new JwtKeyring(SECRET_KEY, "", "")).generateToken(userDetails);
+
+    JwtService jwtService = jwtService(new JwtKeyring(SECRET_KEY, keyring.toString(), "2024-01"));
+
+    assertEquals("test", jwtService.extractAllClaims(hmacToken).getSubject());
+  }
+
+  @Test
+  public void testUnknownKeyIdIsRejected() throws IOException {
+    String token =
+        jwtService(new JwtKeyring("", keyring.toString(), "2024-01")).generateToken(userDetails);
+    Files.delete(keyring.resolve("2024-01.public.pem"));
+    Files.delete(keyring.resolve("2024-01.private.pem"));
+
+    JwtService jwtService = jwtService(new JwtKeyring("", keyring.toString(), "2024-02"));
+
+    assertThrows(JwtException.class, () -> jwtService.extractAllClaims(token));
+  }
+
+  @Test
+  public void testReloadPicksUpNewKeys() throws Exception {
+    JwtKeyring jwtKeyring = new JwtKeyring("", keyring.toString(), "2024-01");
+    writeKeyPair("2024-03");
+    String token =
+        jwtService(new JwtKeyring("", keyring.toString(), "2024-03")).generateToken(userDetails);
+
+    jwtKeyring.reload();
+
+    assertEquals("test", jwtService(jwtKeyring).extractAllClaims(token).getSubject());
+  }
+
+  @Test
+  public void testPublicKeyAsHmacSecretIsRejected() throws IOException {
+    JwtService jwtService = jwtService(new JwtKeyring("", keyring.toString(), "2024-01"));
+    byte[] publicKey = Files.readAllBytes(keyring.resolve("2024-01.public.pem"));
+    String forged =
+        Jwts.builder()
+            .setHeaderParam("kid", "2024-01")
+            .setSubject("test")
+            .signWith(new SecretKeySpec(publicKey, "HmacSHA256"), SignatureAlgorithm.HS256)
+            .compact();
+
+    assertThrows(JwtException.class, () -> jwtService.extractAllClaims(forged));
+  }
+
+  @Test
+  public void testWithoutKeysFails() {
+    assertThrows(IllegalStateException.class, () -> new JwtKeyring("", "", ""));
+  }
+
+  private JwtService jwtService(final JwtKeyring jwtKeyring) {
+    return new JwtService(new JwtClaimsContext(), tokenRevocationList, jwtKeyring, 3600000L);
+  }
+
+  private String unsigned(final String token) {
+    return token.substring(0, token.lastIndexOf('.') + 1);
+  }
+
+  private void writeKeyPair(final String keyId) throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+    generator.initialize(new ECGenParameterSpec("secp256r1"));
+    KeyPair keyPair = generator.generateKeyPair();
+    Files.writeString(
+        keyring.resolve(keyId + ".public.pem"),
+        pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    Files.writeString(
+        keyring.resolve(keyId + ".private.pem"),
+        pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+  }
+
+  private String pem(final String type, final byte[] encoded) {
+    return "-----BEGIN "
+        + type
+        + "-----\n"
+        + Base64.getMimeEncoder().encodeToString(encoded)
+        + "\n-----END "
+        + type
+        + "-----\n";
+  }
+}
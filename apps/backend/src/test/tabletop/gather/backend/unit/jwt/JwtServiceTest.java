@@ -3,34 +3,50 @@ package tabletop.gather.backend.unit.jwt;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import io.jsonwebtoken.Claims;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import tabletop.gather.backend.jwt.JwtClaimsContext;
 import tabletop.gather.backend.jwt.JwtDto;
+import tabletop.gather.backend.jwt.JwtKeyring;
 import tabletop.gather.backend.jwt.JwtService;
+import tabletop.gather.backend.jwt.TokenRejection;
+import tabletop.gather.backend.jwt.TokenRevocationList;
 import tabletop.gather.backend.user.User;
-import tabletop.gather.backend.user.UserService;
+import tabletop.gather.backend.user.UserDto;
 
 public class JwtServiceTest {
 
-  @InjectMocks private JwtService jwtService;
+  private JwtService jwtService;
 
-  @Mock private UserService userService;
   @Mock private UserDetails userDetails;
 
+  @Mock private TokenRevocationList tokenRevocationList;
+
   @BeforeEach
   public void init() {
-    jwtService = new JwtService(userService);
-    ReflectionTestUtils.setField(
-        jwtService,
-        "secretKey",
-        "909912191940e298a1157bfdebb1f5f785daf15b93a1787b80350deab6cdce55");
-    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
     MockitoAnnotations.openMocks(this);
+    jwtService =
+        new JwtService(
+            new JwtClaimsContext(),
+            tokenRevocationList,
+            new JwtKeyring(
+                "909912191940e298a1157bfdebb1f5f785daf15b93a1787b80350deab6cdce55", "", ""),
+            3600000L);
+  }
+
+  @AfterEach
+  public void reset() {
+    RequestContextHolder.resetRequestAttributes();
   }
 
   @Test
@@ -81,4 +97,140 @@ public class JwtServiceTest {
     assertNotNull(jwtDto.getToken());
     assertEquals(jwtService.getExpirationTime(), jwtDto.getExpiresIn());
   }
+
+  @Test
+  public void testExtractAllClaimsParsesOncePerRequest() {
+    when(userDetails.getUsername()).thenReturn("test");
+    String token = jwtService.generateToken(userDetails);
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+
+    Claims claims = jwtService.extractAllClaims("Bearer " + token);
+
+    assertSame(claims, jwtService.extractAllClaims(token));
+  }
+
+  @Test
+  public void testExtractAllClaimsOutsideRequest() {
+    when(userDetails.getUsername()).thenReturn("test");
+    String token = jwtService.generateToken(userDetails);
+
+    Claims claims = jwtService.extractAllClaims(token);
+
+    assertNotSame(claims, jwtService.extractAllClaims(token));
+    assertEquals("test", claims.getSubject());
+  }
+
+  @Test
+  public void testSelfContainedToken() {
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    user.setEmail("test@test.com");
+    user.setUsername("test");
+    user.setFirstName("Test");
+    user.setLastName("User");
+    user.setTokenEpoch(3);
+
+    Claims claims = jwtService.extractAllClaims(jwtService.generateToken(user));
+
+    assertTrue(jwtService.isSelfContained(claims));
+    assertEquals(3, jwtService.extractEpoch(claims));
+    UserDto userDto = jwtService.extractUser(claims);
+    assertEquals(user.getId(), userDto.getId());
+    assertEquals("test@test.com", userDto.getEmail());
+    assertEquals("test", userDto.getUsername());
+    assertEquals("Test", userDto.getFirstName());
+    assertEquals("User", userDto.getLastName());
+  }
+
+  @Test
+  public void testTokenWithoutUserIsNotSelfContained() {
+    when(userDetails.getUsername()).thenReturn("test");
+
+    Claims claims = jwtService.extractAllClaims(jwtService.generateToken(userDetails));
+
+    assertFalse(jwtService.isSelfContained(claims));
+  }
+
+  @Test
+  public void testTokensHaveUniqueIds() {
+    when(userDetails.getUsername()).thenReturn("test");
+
+    Claims first = jwtService.extractAllClaims(jwtService.generateToken(userDetails));
+    Claims second = jwtService.extractAllClaims(jwtService.generateToken(userDetails));
+
+    assertNotNull(first.getId());
+    assertNotEquals(first.getId(), second.getId());
+  }
+
+  @Test
+  public void testRevoke() {
+    when(userDetails.getUsername()).thenReturn("test");
+    String token = jwtService.generateToken(userDetails);
+    Claims claims = jwtService.extractAllClaims(token);
+
+    jwtService.revoke("Bearer " + token);
+
+    verify(tokenRevocationList, times(1))
+        .revoke(claims.getId(), claims.getExpiration().toInstant());
+  }
+
+  @Test
+  public void testRevokeIgnoresInvalidToken() {
+    jwtService.revoke("Bearer invalid");
+
+    verifyNoInteractions(tokenRevocationList);
+  }
+
+  @Test
+  public void testIsRevoked() {
+    when(userDetails.getUsername()).thenReturn("test");
+    Claims claims = jwtService.extractAllClaims(jwtService.generateToken(userDetails));
+    when(tokenRevocationList.isRevoked(claims.getId())).thenReturn(true);
+
+    assertTrue(jwtService.isRevoked(claims));
+  }
+
+  @Test
+  public void testPrecheckAcceptsWellFormedToken() {
+    when(userDetails.getUsername()).thenReturn("test");
+    String token = jwtService.generateToken(userDetails);
+
+    assertEquals(Optional.empty(), jwtService.precheck("Bearer " + token));
+  }
+
+  @Test
+  public void testPrecheckRejectsMalformedToken() {
+    assertEquals(Optional.of(TokenRejection.MALFORMED), jwtService.precheck("Bearer "));
+    assertEquals(Optional.of(TokenRejection.MALFORMED), jwtService.precheck("Bearer abc"));
+    assertEquals(Optional.of(TokenRejection.MALFORMED), jwtService.precheck("Bearer a.b.c.d"));
+    assertEquals(Optional.of(TokenRejection.MALFORMED), jwtService.precheck("Bearer ab..cd"));
+    assertEquals(Optional.of(TokenRejection.MALFORMED), jwtService.precheck("Bearer ab.c+d.ef"));
+    assertEquals(Optional.of(TokenRejection.MALFORMED), jwtService.precheck("Bearer ab.abcde.ef"));
+  }
+
+  @Test
+  public void testPrecheckRejectsUnsignedToken() {
+    when(userDetails.getUsername()).thenReturn("test");
+    String token = jwtService.generateToken(userDetails);
+
+    String unsigned = token.substring(0, token.lastIndexOf('.') + 1);
+
+    assertEquals(Optional.of(TokenRejection.UNSIGNED), jwtService.precheck(unsigned));
+  }
+
+  @Test
+  public void testPrecheckRejectsExpiredToken() {
+    JwtService expiringJwtService =
+        new JwtService(
+            new JwtClaimsContext(),
+            tokenRevocationList,
+            new JwtKeyring(
+                "909912191940e298a1157bfdebb1f5f785daf15b93a1787b80350deab6cdce55", "", ""),
+            -60000L);
+    when(userDetails.getUsername()).thenReturn("test");
+    String token = expiringJwtService.generateToken(userDetails);
+
+    assertEquals(Optional.of(TokenRejection.EXPIRED), jwtService.precheck(token));
+  }
 }
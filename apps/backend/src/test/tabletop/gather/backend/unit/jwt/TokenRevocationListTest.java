@@ -0,0 +1,87 @@
+package tabletop.gather.backend.unit.jwt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import tabletop.gather.backend.jwt.RevokedToken;
+import tabletop.gather.backend.jwt.RevokedTokenRepository;
+import tabletop.gather.backend.jwt.TokenRevocationList;
+
+public class TokenRevocationListTest {
+
+  @InjectMocks private TokenRevocationList tokenRevocationList;
+
+  @Mock private RevokedTokenRepository revokedTokenRepository;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  public void testRevoke() {
+    String jti = UUID.randomUUID().toString();
+    Instant expiresAt = Instant.now().plusSeconds(60);
+
+    tokenRevocationList.revoke(jti, expiresAt);
+
+    assertTrue(tokenRevocationList.isRevoked(jti));
+    assertFalse(tokenRevocationList.isRevoked(UUID.randomUUID().toString()));
+    assertFalse(tokenRevocationList.isRevoked(null));
+    ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+    verify(revokedTokenRepository, times(1)).save(captor.capture());
+    assertEquals(jti, captor.getValue().getJti().toString());
+    assertEquals(expiresAt, captor.getValue().getExpiresAt().toInstant());
+  }
+
+  @Test
+  public void testRevokeMany() {
+    List<String> revoked =
+        Stream.generate(() -> UUID.randomUUID().toString()).limit(20_000).toList();
+    revoked.forEach(jti -> tokenRevocationList.revoke(jti, Instant.now().plusSeconds(60)));
+
+    assertTrue(revoked.stream().allMatch(tokenRevocationList::isRevoked));
+    assertTrue(
+        Stream.generate(() -> UUID.randomUUID().toString())
+            .limit(1_000)
+            .noneMatch(tokenRevocationList::isRevoked));
+  }
+
+  @Test
+  public void testLoadOnStartup() {
+    RevokedToken revokedToken = new RevokedToken();
+    revokedToken.setJti(UUID.randomUUID());
+    revokedToken.setExpiresAt(Instant.now().plusSeconds(60).atOffset(ZoneOffset.UTC));
+    when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(revokedToken));
+
+    tokenRevocationList.afterPropertiesSet();
+
+    assertTrue(tokenRevocationList.isRevoked(revokedToken.getJti().toString()));
+  }
+
+  @Test
+  public void testSyncDropsExpired() {
+    String expired = UUID.randomUUID().toString();
+    String current = UUID.randomUUID().toString();
+    tokenRevocationList.revoke(expired, Instant.now().minusSeconds(1));
+    tokenRevocationList.revoke(current, Instant.now().plusSeconds(60));
+
+    tokenRevocationList.sync();
+
+    assertFalse(tokenRevocationList.isRevoked(expired));
+    assertTrue(tokenRevocationList.isRevoked(current));
+    verify(revokedTokenRepository, times(1)).deleteExpired(any());
+  }
+}
@@ -1,21 +1,27 @@
 package tabletop.gather.backend.unit.plan;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import tabletop.gather.backend.jwt.JwtService;
 import tabletop.gather.backend.plan.*;
 import tabletop.gather.backend.user.*;
+import tabletop.gather.backend.util.EntityVersion;
 
 public class PlanResourceTest {
 
@@ -23,8 +29,6 @@ public class PlanResourceTest {
 
   @Mock private PlanService planService;
 
-  @Mock private JwtService jwtService;
-
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -32,32 +36,42 @@ public class PlanResourceTest {
 
   @Test
   public void testGetAllPlans() {
-    String token = "Bearer testToken";
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
     OverviewPlanDto planDto = new OverviewPlanDto();
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
     when(planService.findAllExceptUser(userId)).thenReturn(Arrays.asList(planDto));
 
-    ResponseEntity<List<OverviewPlanDto>> response = planResource.getAllPlans(token);
+    ResponseEntity<List<OverviewPlanDto>> response = planResource.getAllPlans(userDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(Arrays.asList(planDto), response.getBody());
   }
 
+  @Test
+  public void testGetAllPlansPaged() {
+    UUID userId = UUID.randomUUID();
+    UserDto userDto = new UserDto();
+    userDto.setId(userId);
+    Page<OverviewPlanDto> page = new PageImpl<>(Arrays.asList(new OverviewPlanDto()));
+    when(planService.findAllExceptUser(userId, PageRequest.of(0, 20))).thenReturn(page);
+
+    ResponseEntity<Page<OverviewPlanDto>> response = planResource.getAllPlansPaged(userDto, 0, 20);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(page, response.getBody());
+  }
+
   @Test
   public void testGetAllPlansForUser() {
-    String token = "Bearer testToken";
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
 
     OverviewPlanDto planDto = new OverviewPlanDto();
     when(planService.findAllExceptUser(userId)).thenReturn(Arrays.asList(planDto));
 
-    ResponseEntity<List<OverviewPlanDto>> response = planResource.getAllPlans(token);
+    ResponseEntity<List<OverviewPlanDto>> response = planResource.getAllPlans(userDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(Arrays.asList(planDto), response.getBody());
@@ -65,16 +79,14 @@ public class PlanResourceTest {
 
   @Test
   public void testGetAttendingPlans() {
-    String token = "Bearer testToken";
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
 
     OverviewPlanDto overviewPlanDto = new OverviewPlanDto();
     when(planService.findAllAttending(userId)).thenReturn(Arrays.asList(overviewPlanDto));
 
-    ResponseEntity<List<OverviewPlanDto>> response = planResource.getAttendingPlans(token);
+    ResponseEntity<List<OverviewPlanDto>> response = planResource.getAttendingPlans(userDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(Arrays.asList(overviewPlanDto), response.getBody());
@@ -86,24 +98,38 @@ public class PlanResourceTest {
     DetailPlanDto planDto = new DetailPlanDto();
     when(planService.getDetail(planId)).thenReturn(planDto);
 
-    ResponseEntity<DetailPlanDto> response = planResource.getPlan(planId);
+    ResponseEntity<DetailPlanDto> response = planResource.getPlan(null, planId);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(planDto, response.getBody());
   }
 
+  @Test
+  public void testGetPlanNotModified() {
+    UUID planId = UUID.randomUUID();
+    EntityVersion version = new EntityVersion(OffsetDateTime.now(), 3L);
+    when(planService.getDetailVersion(planId)).thenReturn(Optional.of(version));
+
+    ResponseEntity<DetailPlanDto> response =
+        planResource.getPlan("\"stale\", " + version.toETag(), planId);
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(version.toETag(), response.getHeaders().getETag());
+    assertNull(response.getBody());
+    verify(planService, never()).getDetail(any());
+  }
+
   @Test
   public void testCreatePlan() {
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(anyString())).thenReturn(userDto);
 
     CreatePlanDto createPlanDto = new CreatePlanDto();
     UUID createdId = UUID.randomUUID();
     when(planService.create(createPlanDto, userId)).thenReturn(createdId);
 
-    ResponseEntity<UUID> response = planResource.createPlan("Bearer testToken", createPlanDto);
+    ResponseEntity<UUID> response = planResource.createPlan(userDto, createPlanDto);
 
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     assertEquals(createdId, response.getBody());
@@ -114,7 +140,6 @@ public class PlanResourceTest {
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(anyString())).thenReturn(userDto);
 
     UUID planId = UUID.randomUUID();
     PlanDto planDto = new PlanDto();
@@ -122,8 +147,7 @@ public class PlanResourceTest {
     when(planService.get(planId)).thenReturn(planDto);
 
     UpdatePlanDto updatePlanDto = new UpdatePlanDto();
-    ResponseEntity<UUID> response =
-        planResource.updatePlan("Bearer testToken", planId, updatePlanDto);
+    ResponseEntity<UUID> response = planResource.updatePlan(userDto, planId, updatePlanDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(planId, response.getBody());
@@ -134,14 +158,13 @@ public class PlanResourceTest {
     UUID userId = UUID.randomUUID();
     UserDto userDto = new UserDto();
     userDto.setId(userId);
-    when(jwtService.getUserByToken(anyString())).thenReturn(userDto);
 
     UUID planId = UUID.randomUUID();
     PlanDto planDto = new PlanDto();
     planDto.setUser(userId);
     when(planService.get(planId)).thenReturn(planDto);
 
-    ResponseEntity<Void> response = planResource.deletePlan("Bearer testToken", planId);
+    ResponseEntity<Void> response = planResource.deletePlan(userDto, planId);
 
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
   }
@@ -1,6 +1,7 @@
 package tabletop.gather.backend.unit.plan;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
@@ -10,9 +11,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.*;
 import tabletop.gather.backend.game.*;
 import tabletop.gather.backend.gathering.CreateGatheringDto;
 import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringParticipantCount;
+import tabletop.gather.backend.gathering.GatheringRepository;
 import tabletop.gather.backend.plan.*;
 import tabletop.gather.backend.user.*;
 
@@ -26,6 +30,12 @@ public class PlanServiceTest {
 
   @Mock private GameRepository gameRepository;
 
+  @Mock private GatheringRepository gatheringRepository;
+
+  @Mock private PlanSummaryRepository planSummaryRepository;
+
+  @Mock private PlanSummaryService planSummaryService;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -33,114 +43,95 @@ public class PlanServiceTest {
 
   @Test
   public void testFindAllExceptUser() {
-    User user1 = new User();
-    user1.setId(UUID.randomUUID());
-    Gathering gathering1 = new Gathering();
-    gathering1.setDate(LocalDate.now().plusDays(1));
-    gathering1.setUsers(new HashSet<>(Arrays.asList()));
-    Plan plan1 = new Plan();
-    plan1.setId(UUID.randomUUID());
-    plan1.setUser(user1);
-    plan1.setGatherings(new HashSet<>(Arrays.asList(gathering1)));
-    plan1.setGame(new Game());
-    plan1.setPlayerLimit(0);
-
-    User user2 = new User();
-    user2.setId(UUID.randomUUID());
-    Gathering gathering2 = new Gathering();
-    gathering2.setDate(LocalDate.now().plusDays(1));
-    gathering2.setUsers(new HashSet<>(Arrays.asList()));
-    Plan plan2 = new Plan();
-    plan2.setId(UUID.randomUUID());
-    plan2.setUser(user2);
-    plan2.setGatherings(new HashSet<>(Arrays.asList(gathering2)));
-    plan2.setGame(new Game());
-    plan1.setPlayerLimit(0);
-
-    Gathering gathering3 = new Gathering();
-    gathering3.setDate(LocalDate.now().minusDays(1));
-    gathering3.setUsers(new HashSet<>(Arrays.asList()));
-    Plan plan3 = new Plan();
-    plan3.setId(UUID.randomUUID());
-    plan3.setUser(user2);
-    plan3.setGatherings(new HashSet<>(Arrays.asList(gathering3)));
-    plan3.setGame(new Game());
-    plan1.setPlayerLimit(0);
-
-    Gathering gathering4 = new Gathering();
-    gathering4.setDate(LocalDate.now().plusDays(1));
-    gathering4.setUsers(new HashSet<>(Arrays.asList(user2)));
-    Plan plan4 = new Plan();
-    plan4.setId(UUID.randomUUID());
-    plan4.setUser(user2);
-    plan4.setGatherings(new HashSet<>(Arrays.asList(gathering4)));
-    plan4.setPlayerLimit(1);
-
-    when(planRepository.findAllByIsPrivateFalse())
-        .thenReturn(Arrays.asList(plan1, plan2, plan3, plan4));
-
-    List<OverviewPlanDto> response = planService.findAllExceptUser(user1.getId());
+    UUID userId = UUID.randomUUID();
+    PlanSummary summary = new PlanSummary();
+    summary.setPlanId(UUID.randomUUID());
+    summary.setGameId(UUID.randomUUID());
+    summary.setGatherings(Arrays.asList(new PlanSummaryGathering()));
+
+    when(planSummaryRepository.findUpcomingPublicExceptUser(
+            eq(userId), any(LocalDate.class), eq(Pageable.unpaged())))
+        .thenReturn(new PageImpl<>(Arrays.asList(summary)));
+
+    List<OverviewPlanDto> response = planService.findAllExceptUser(userId);
 
     assertEquals(1, response.size());
-    assertEquals(plan2.getId(), response.get(0).getId());
+    assertEquals(summary.getPlanId(), response.get(0).getId());
+    assertEquals(summary.getGameId(), response.get(0).getGame().getId());
+    assertEquals(1, response.get(0).getGatheringDtos().size());
+  }
+
+  @Test
+  public void testFindAllExceptUserPaged() {
+    UUID userId = UUID.randomUUID();
+    PlanSummary summary = new PlanSummary();
+    summary.setPlanId(UUID.randomUUID());
+    summary.setGatherings(Arrays.asList(new PlanSummaryGathering()));
+    Pageable pageable = PageRequest.of(1, 1);
+
+    when(planSummaryRepository.findUpcomingPublicExceptUser(
+            eq(userId), eq(LocalDate.now()), eq(pageable)))
+        .thenReturn(new PageImpl<>(Arrays.asList(summary), pageable, 3));
+
+    Page<OverviewPlanDto> response = planService.findAllExceptUser(userId, pageable);
+
+    assertEquals(1, response.getContent().size());
+    assertEquals(3, response.getTotalElements());
+    assertEquals(summary.getPlanId(), response.getContent().get(0).getId());
+    assertNull(response.getContent().get(0).getGame());
   }
 
   @Test
   public void testFindAllByUserId() {
     UUID userId = UUID.randomUUID();
-    User user = new User();
-    user.setId(userId);
-    user.setFirstName("Mock");
-    user.setLastName("Mockito");
-    Gathering gathering1 = new Gathering();
-    gathering1.setDate(LocalDate.now().plusDays(2));
-    Gathering gathering2 = new Gathering();
-    gathering2.setDate(LocalDate.now().minusDays(1));
-    Plan plan = new Plan();
-    plan.setUser(user);
-    plan.setGatherings(new HashSet<>(Arrays.asList(gathering1)));
-    plan.setGame(new Game());
+    PlanSummary summary = new PlanSummary();
+    summary.setPlanId(UUID.randomUUID());
+    summary.setUserId(userId);
+    summary.setOwnerName("Mock Mockito");
+    summary.setGatherings(Arrays.asList(new PlanSummaryGathering()));
 
-    when(planRepository.findAllByUserId(userId)).thenReturn(Arrays.asList(plan));
+    when(planSummaryRepository.findUpcomingByUserId(userId, LocalDate.now()))
+        .thenReturn(Arrays.asList(summary));
 
     List<OverviewPlanDto> response = planService.findAll(userId);
 
     assertEquals(1, response.size());
-    assertEquals(
-        String.format("%s %s", user.getFirstName(), user.getLastName()),
-        response.get(0).getOwnerName());
+    assertEquals("Mock Mockito", response.get(0).getOwnerName());
   }
 
   @Test
   public void testFindAllAttending() {
-    User user1 = new User();
-    user1.setId(UUID.randomUUID());
-    Gathering gathering1 = new Gathering();
-    gathering1.setDate(LocalDate.now().plusDays(1));
-    gathering1.setUsers(new HashSet<>(Arrays.asList(user1)));
-    Plan plan1 = new Plan();
-    plan1.setId(UUID.randomUUID());
-    plan1.setUser(user1);
-    plan1.setGatherings(new HashSet<>(Arrays.asList(gathering1)));
-    plan1.setGame(new Game());
-
-    User user2 = new User();
-    user2.setId(UUID.randomUUID());
-    Gathering gathering2 = new Gathering();
-    gathering2.setDate(LocalDate.now().plusDays(1));
-    gathering2.setUsers(new HashSet<>(Arrays.asList(user2)));
-    Plan plan2 = new Plan();
-    plan2.setId(UUID.randomUUID());
-    plan2.setUser(user2);
-    plan2.setGatherings(new HashSet<>(Arrays.asList(gathering2)));
-    plan2.setGame(new Game());
-
-    when(planRepository.findAll()).thenReturn(Arrays.asList(plan1, plan2));
-
-    List<OverviewPlanDto> response = planService.findAllAttending(user1.getId());
-
-    assertEquals(1, response.size());
-    assertEquals(plan1.getId(), response.get(0).getId());
+    UUID userId = UUID.randomUUID();
+    PlanSummaryGathering gathering1 = new PlanSummaryGathering();
+    gathering1.setId(UUID.randomUUID());
+    gathering1.setDate(LocalDate.now().plusDays(3));
+    PlanSummaryGathering notAttended = new PlanSummaryGathering();
+    notAttended.setId(UUID.randomUUID());
+    notAttended.setDate(LocalDate.now().plusDays(1));
+    PlanSummary summary1 = new PlanSummary();
+    summary1.setPlanId(UUID.randomUUID());
+    summary1.setGatherings(Arrays.asList(notAttended, gathering1));
+
+    PlanSummaryGathering gathering2 = new PlanSummaryGathering();
+    gathering2.setId(UUID.randomUUID());
+    gathering2.setDate(LocalDate.now().plusDays(2));
+    PlanSummary summary2 = new PlanSummary();
+    summary2.setPlanId(UUID.randomUUID());
+    summary2.setGatherings(Arrays.asList(gathering2));
+
+    when(gatheringRepository.findIdsAttendedBy(userId))
+        .thenReturn(new HashSet<>(Arrays.asList(gathering1.getId(), gathering2.getId())));
+    when(planSummaryRepository.findAllAttendedBy(userId))
+        .thenReturn(Arrays.asList(summary1, summary2));
+
+    List<OverviewPlanDto> response = planService.findAllAttending(userId);
+
+    assertEquals(2, response.size());
+    assertEquals(summary2.getPlanId(), response.get(0).getId());
+    assertEquals(summary1.getPlanId(), response.get(1).getId());
+    assertEquals(1, response.get(1).getGatheringDtos().size());
+    assertEquals(gathering1.getId(), response.get(1).getGatheringDtos().get(0).getId());
+    verify(planRepository, never()).findAll();
   }
 
   @Test
@@ -153,15 +144,18 @@ public class PlanServiceTest {
     user.setLastName("Mockito");
     plan.setUser(user);
     Gathering gathering = new Gathering();
-    gathering.setUsers(new HashSet<>(Arrays.asList(new User())));
+    gathering.setId(UUID.randomUUID());
     plan.setGatherings(new HashSet<>(Arrays.asList(gathering)));
     plan.setGame(new Game());
 
-    when(planRepository.findById(planId)).thenReturn(Optional.of(plan));
+    when(planRepository.findDetailById(planId)).thenReturn(Optional.of(plan));
+    when(gatheringRepository.countParticipantsByPlanId(planId))
+        .thenReturn(Arrays.asList(new GatheringParticipantCount(gathering.getId(), 3L)));
 
     DetailPlanDto response = planService.getDetail(planId);
 
     assertEquals(planId, response.getId());
+    assertEquals(3, response.getGatherings().get(0).getParticipantCount());
   }
 
   @Test
@@ -194,6 +188,7 @@ public class PlanServiceTest {
     UUID response = planService.create(createPlanDto, userId);
 
     assertEquals(plan.getId(), response);
+    verify(planSummaryService, times(1)).refresh(plan.getId());
   }
 
   @Test
@@ -207,6 +202,7 @@ public class PlanServiceTest {
     planService.update(planId, updatePlanDto);
 
     verify(planRepository, times(1)).save(plan);
+    verify(planSummaryService, times(1)).refresh(planId);
   }
 
   @Test
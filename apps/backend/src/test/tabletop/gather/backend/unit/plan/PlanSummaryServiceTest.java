@@ -0,0 +1,133 @@
+package tabletop.gather.backend.unit.plan;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import tabletop.gather.backend.config.CacheConfig;
+import tabletop.gather.backend.game.Game;
+import tabletop.gather.backend.gathering.Gathering;
+import tabletop.gather.backend.gathering.GatheringParticipantCount;
+import tabletop.gather.backend.gathering.GatheringRepository;
+import tabletop.gather.backend.plan.*;
+import tabletop.gather.backend.user.User;
+
+public class PlanSummaryServiceTest {
+
+  @InjectMocks private PlanSummaryService planSummaryService;
+
+  @Mock private PlanSummaryRepository planSummaryRepository;
+
+  @Mock private PlanRepository planRepository;
+
+  @Mock private GatheringRepository gatheringRepository;
+
+  @Mock private CacheManager cacheManager;
+
+  @Mock private Cache planDetails;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    when(cacheManager.getCache(CacheConfig.PLAN_DETAILS)).thenReturn(planDetails);
+  }
+
+  @Test
+  public void testRefresh() {
+    User owner = new User();
+    owner.setId(UUID.randomUUID());
+    owner.setFirstName("Mock");
+    owner.setLastName("Mockito");
+
+    Game game = new Game();
+    game.setId(UUID.randomUUID());
+    game.setName("Game");
+
+    Gathering past = new Gathering();
+    past.setId(UUID.randomUUID());
+    past.setDate(LocalDate.now().minusDays(1));
+    past.setStartTime(LocalTime.NOON);
+    Gathering full = new Gathering();
+    full.setId(UUID.randomUUID());
+    full.setDate(LocalDate.now().plusDays(2));
+    full.setStartTime(LocalTime.NOON);
+    Gathering open = new Gathering();
+    open.setId(UUID.randomUUID());
+    open.setDate(LocalDate.now().plusDays(1));
+    open.setStartTime(LocalTime.NOON);
+
+    Plan plan = new Plan();
+    plan.setId(UUID.randomUUID());
+    plan.setName("Plan");
+    plan.setIsPrivate(false);
+    plan.setPlayerLimit(2);
+    plan.setUser(owner);
+    plan.setGame(game);
+    plan.setGatherings(new HashSet<>(Arrays.asList(past, full, open)));
+
+    when(planRepository.findOverviewById(plan.getId())).thenReturn(Optional.of(plan));
+    when(planSummaryRepository.findForUpdate(plan.getId())).thenReturn(Optional.empty());
+    when(gatheringRepository.countParticipantsByPlanId(plan.getId()))
+        .thenReturn(
+            Arrays.asList(
+                new GatheringParticipantCount(past.getId(), 1L),
+                new GatheringParticipantCount(full.getId(), 2L)));
+
+    planSummaryService.refresh(plan.getId());
+
+    InOrder inOrder = inOrder(planSummaryRepository, gatheringRepository);
+    inOrder.verify(planSummaryRepository).findForUpdate(plan.getId());
+    inOrder.verify(gatheringRepository).countParticipantsByPlanId(plan.getId());
+    verify(planSummaryRepository, times(1))
+        .save(
+            argThat(
+                summary ->
+                    summary.getPlanId().equals(plan.getId())
+                        && summary.getOwnerName().equals("Mock Mockito")
+                        && summary.getGameId().equals(game.getId())
+                        && summary.getEarliestDate().equals(past.getDate())
+                        && summary.getLatestDate().equals(full.getDate())
+                        && summary.getLatestOpenDate().equals(open.getDate())
+                        && summary.getGatherings().size() == 3
+                        && summary.getGatherings().get(1).getParticipantCount() == 0
+                        && summary.getGatherings().get(2).getParticipantCount() == 2));
+    verify(planDetails, times(1)).evict(plan.getId());
+  }
+
+  @Test
+  public void testRefreshDeletedPlan() {
+    UUID planId = UUID.randomUUID();
+    when(planRepository.findOverviewById(planId)).thenReturn(Optional.empty());
+
+    planSummaryService.refresh(planId);
+
+    verify(planSummaryRepository, times(1)).deleteById(planId);
+    verify(planSummaryRepository, never()).save(any(PlanSummary.class));
+    verify(planDetails, times(1)).evict(planId);
+  }
+
+  @Test
+  public void testRefreshOwner() {
+    User owner = new User();
+    owner.setId(UUID.randomUUID());
+    owner.setFirstName("Mock");
+    owner.setLastName("Mockito");
+    UUID planId = UUID.randomUUID();
+    when(planSummaryRepository.findPlanIdsByUserId(owner.getId())).thenReturn(List.of(planId));
+
+    planSummaryService.refreshOwner(owner);
+
+    verify(planSummaryRepository, times(1)).updateOwnerName(owner.getId(), "Mock Mockito");
+    verify(planDetails, times(1)).evict(planId);
+  }
+}
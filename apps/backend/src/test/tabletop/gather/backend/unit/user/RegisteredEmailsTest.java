@@ -0,0 +1,59 @@
+package tabletop.gather.backend.unit.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import tabletop.gather.backend.user.RegisteredEmails;
+import tabletop.gather.backend.user.UserRepository;
+
+public class RegisteredEmailsTest {
+
+  @Mock private UserRepository userRepository;
+
+  private RegisteredEmails registeredEmails;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    registeredEmails = new RegisteredEmails(userRepository);
+  }
+
+  @Test
+  public void testRebuild() {
+    when(userRepository.findAllLowerCaseEmails()).thenReturn(List.of("test@test.com"));
+
+    registeredEmails.rebuild();
+
+    assertTrue(registeredEmails.mightBeRegistered("Test@Test.com"));
+    assertFalse(registeredEmails.mightBeRegistered("other@test.com"));
+  }
+
+  @Test
+  public void testRebuildKeepsEmailsAddedWhileLoading() {
+    when(userRepository.findAllLowerCaseEmails())
+        .thenAnswer(
+            invocation -> {
+              registeredEmails.add("New@test.com");
+              return List.of("test@test.com");
+            });
+
+    registeredEmails.rebuild();
+
+    assertTrue(registeredEmails.mightBeRegistered("new@test.com"));
+  }
+
+  @Test
+  public void testRebuildKeepsEmailsAddedBeforeLoading() {
+    when(userRepository.findAllLowerCaseEmails()).thenReturn(List.of());
+    registeredEmails.add("new@test.com");
+
+    registeredEmails.rebuild();
+
+    assertTrue(registeredEmails.mightBeRegistered("new@test.com"));
+  }
+}
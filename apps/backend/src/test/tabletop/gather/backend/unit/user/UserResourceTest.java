@@ -15,6 +15,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import tabletop.gather.backend.auth.AuthenticationService;
+import tabletop.gather.backend.auth.RefreshTokenService;
 import tabletop.gather.backend.jwt.JwtDto;
 import tabletop.gather.backend.jwt.JwtService;
 import tabletop.gather.backend.user.*;
@@ -29,6 +30,8 @@ public class UserResourceTest {
 
   @Mock AuthenticationService authenticationService;
 
+  @Mock private RefreshTokenService refreshTokenService;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -60,7 +63,6 @@ public class UserResourceTest {
 
   @Test
   public void testUpdateAuthenticatedUser() {
-    String token = "token";
     UserUpdateDto userUpdateDto = new UserUpdateDto();
     UserDto userDto = new UserDto();
     User user = new User();
@@ -69,10 +71,9 @@ public class UserResourceTest {
     jwtDto.setExpiresIn(3600L);
     when(userService.getByEmail(userDto.getEmail())).thenReturn(userDto);
     when(userService.update(userDto.getId(), userUpdateDto, userDto.getEmail())).thenReturn(user);
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
     when(jwtService.getNewJwtToken(user)).thenReturn(jwtDto);
 
-    ResponseEntity<JwtDto> response = userResource.updateAuthenticatedUser(token, userUpdateDto);
+    ResponseEntity<JwtDto> response = userResource.updateAuthenticatedUser(userDto, userUpdateDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(jwtDto.getToken(), response.getBody().getToken());
@@ -82,24 +83,21 @@ public class UserResourceTest {
 
   @Test
   public void testDeleteAuthenticatedUser() {
-    String token = "token";
     UserDto userDto = new UserDto();
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
     when(userService.getByEmail(userDto.getEmail())).thenReturn(userDto);
 
-    ResponseEntity<Void> response = userResource.deleteAuthenticatedUser(token);
+    ResponseEntity<Void> response = userResource.deleteAuthenticatedUser("Bearer token", userDto);
 
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    verify(jwtService, times(1)).revoke("Bearer token");
   }
 
   @Test
   public void testGetAuthenticatedUser() {
-    String token = "token";
     UserDto userDto = new UserDto();
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
     when(userService.getByEmail(userDto.getEmail())).thenReturn(userDto);
 
-    ResponseEntity<UserDto> response = userResource.getAuthenticatedUser(token);
+    ResponseEntity<UserDto> response = userResource.getAuthenticatedUser(userDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(userDto, response.getBody());
@@ -112,7 +110,7 @@ public class UserResourceTest {
     userPlanDto.setFullName("fullName");
     when(userService.findByPlanId(planId)).thenReturn(Arrays.asList(userPlanDto));
 
-    ResponseEntity<List<UserPlanDto>> response = userResource.getUsersByPlanId(planId);
+    ResponseEntity<List<UserPlanDto>> response = userResource.getUsersByPlanId(null, planId);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(1, response.getBody().size());
@@ -122,23 +120,25 @@ public class UserResourceTest {
 
   @Test
   public void testUpdatePassword() {
-    String token = "token";
     PasswordUpdateDto passwordUpdateDto = new PasswordUpdateDto();
     UserDto userDto = new UserDto();
     User user = new User();
     JwtDto jwtDto = new JwtDto();
     jwtDto.setToken("newToken");
     jwtDto.setExpiresIn(3600L);
-    when(jwtService.getUserByToken(token)).thenReturn(userDto);
-    when(jwtService.getNewJwtToken(user)).thenReturn(jwtDto);
+    jwtDto.setRefreshToken("newRefreshToken");
+    when(refreshTokenService.createSession(user)).thenReturn(jwtDto);
     when(userService.getByEmail(userDto.getEmail())).thenReturn(userDto);
     when(userService.updatePassword(userDto.getId(), passwordUpdateDto)).thenReturn(user);
 
-    ResponseEntity<JwtDto> response = userResource.updatePassword(passwordUpdateDto, token);
+    ResponseEntity<JwtDto> response =
+        userResource.updatePassword("Bearer token", passwordUpdateDto, userDto);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(jwtDto.getToken(), response.getBody().getToken());
     assertEquals(jwtDto.getExpiresIn(), response.getBody().getExpiresIn());
+    assertEquals(jwtDto.getRefreshToken(), response.getBody().getRefreshToken());
     verify(authenticationService, times(1)).verifyEmailPassword(any(), any());
+    verify(jwtService, times(1)).revoke("Bearer token");
   }
 }
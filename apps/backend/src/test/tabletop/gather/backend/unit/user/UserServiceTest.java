@@ -3,6 +3,8 @@ package tabletop.gather.backend.unit.user;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +12,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Sort;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import tabletop.gather.backend.gathering.Gathering;
-import tabletop.gather.backend.plan.Plan;
+import tabletop.gather.backend.auth.RefreshTokenService;
+import tabletop.gather.backend.gathering.GatheringRepository;
+import tabletop.gather.backend.jwt.TokenEpochCache;
+import tabletop.gather.backend.plan.PlanSummaryService;
 import tabletop.gather.backend.user.*;
 
 public class UserServiceTest {
@@ -23,6 +28,18 @@ public class UserServiceTest {
 
   @Mock private PasswordEncoder passwordEncoder;
 
+  @Mock private GatheringRepository gatheringRepository;
+
+  @Mock private PlanSummaryService planSummaryService;
+
+  @Mock private TokenEpochCache tokenEpochCache;
+
+  @Mock private UserCache userCache;
+
+  @Mock private RefreshTokenService refreshTokenService;
+
+  @Mock private RegisteredEmails registeredEmails;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -66,68 +83,87 @@ public class UserServiceTest {
   @Test
   public void testFindByPlanId() {
     UUID planId = UUID.randomUUID();
-    UUID gatheringId = UUID.randomUUID();
     UUID userId = UUID.randomUUID();
+    UUID otherUserId = UUID.randomUUID();
+    LocalDate date = LocalDate.now();
+    LocalTime time = LocalTime.NOON;
 
-    Plan plan = new Plan();
-    plan.setId(planId);
-
-    Gathering gathering = new Gathering();
-    gathering.setId(gatheringId);
-    gathering.setPlan(plan);
-    plan.setGatherings(new HashSet<>(Arrays.asList(gathering)));
-
-    User user = new User();
-    user.setId(userId);
-    user.setFirstName("Mock");
-    user.setLastName("Mockito");
-    user.setGatherings(new HashSet<>(Arrays.asList(gathering)));
-    gathering.setUsers(new HashSet<>(Arrays.asList(user)));
-
-    when(userRepository.findByGatheringsPlanId(planId)).thenReturn(Arrays.asList(user));
+    when(userRepository.findAttendingByPlanId(planId))
+        .thenReturn(
+            Arrays.asList(
+                new UserPlanProjection(userId, "Mock", "Mockito", date, time),
+                new UserPlanProjection(userId, "Mock", "Mockito", date.plusDays(1), time),
+                new UserPlanProjection(otherUserId, "Other", "User", date, time)));
 
     List<UserPlanDto> userPlanDtos = userService.findByPlanId(planId);
 
-    assertEquals(1, userPlanDtos.size());
+    assertEquals(2, userPlanDtos.size());
     assertEquals("Mock Mockito", userPlanDtos.get(0).getFullName());
-    verify(userRepository, times(1)).findByGatheringsPlanId(planId);
+    assertEquals(2, userPlanDtos.get(0).getAttendingGatherings().size());
+    assertEquals(1, userPlanDtos.get(1).getAttendingGatherings().size());
+    verify(userRepository, times(1)).findAttendingByPlanId(planId);
   }
 
   @Test
   public void testUpdate() {
     User user = new User();
     UserUpdateDto userUpdateDto = new UserUpdateDto();
+    userUpdateDto.setEmail("new@test.com");
     when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
     when(userRepository.save(any(User.class))).thenReturn(user);
 
-    User updatedUser = userService.update(UUID.randomUUID(), userUpdateDto, "test@test.com");
+    UUID id = UUID.randomUUID();
+    User updatedUser = userService.update(id, userUpdateDto, "test@test.com");
 
     assertEquals(user, updatedUser);
+    assertEquals(1, updatedUser.getTokenEpoch());
+    verify(tokenEpochCache, times(1)).update(id, 1);
+    verify(userCache, times(1)).removeUserFromCache("test@test.com");
+    verify(userCache, times(1)).removeUserFromCache("new@test.com");
+    verify(registeredEmails, times(1)).add("new@test.com");
     verify(userRepository, times(1)).findById(any(UUID.class));
     verify(userRepository, times(1)).save(any(User.class));
+    verify(planSummaryService, times(1)).refreshOwner(user);
   }
 
   @Test
   public void testDelete() {
     UUID id = UUID.randomUUID();
+    UUID attendedPlanId = UUID.randomUUID();
+    UUID ownedPlanId = UUID.randomUUID();
+    User user = new User();
+    user.setEmail("test@test.com");
+    when(gatheringRepository.findPlanIdsAttendedBy(id)).thenReturn(List.of(attendedPlanId));
+    when(planSummaryService.findPlanIdsOwnedBy(id)).thenReturn(List.of(ownedPlanId));
+    when(userRepository.findById(id)).thenReturn(Optional.of(user));
+
     userService.delete(id);
 
     verify(userRepository, times(1)).deleteById(any(UUID.class));
+    verify(tokenEpochCache, times(1)).evict(id);
+    verify(userCache, times(1)).removeUserFromCache("test@test.com");
+    verify(planSummaryService, times(1)).refresh(Set.of(attendedPlanId, ownedPlanId));
   }
 
   @Test
   public void testUpdatePassword() {
     User user = new User();
+    user.setEmail("test@test.com");
     PasswordUpdateDto passwordUpdateDto = new PasswordUpdateDto();
     passwordUpdateDto.setNewPassword("password");
     when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
     when(userRepository.save(any(User.class))).thenReturn(user);
 
-    User updatedUser = userService.updatePassword(UUID.randomUUID(), passwordUpdateDto);
+    UUID id = UUID.randomUUID();
+    User updatedUser = userService.updatePassword(id, passwordUpdateDto);
 
     assertEquals(user, updatedUser);
+    assertEquals(1, updatedUser.getTokenEpoch());
+    verify(tokenEpochCache, times(1)).update(id, 1);
     verify(userRepository, times(1)).findById(any(UUID.class));
     verify(userRepository, times(1)).save(any(User.class));
     verify(passwordEncoder, times(1)).encode(passwordUpdateDto.getNewPassword());
+    verify(userCache, times(1)).removeUserFromCache("test@test.com");
+    verify(refreshTokenService, times(1)).revokeAll(id);
   }
 }